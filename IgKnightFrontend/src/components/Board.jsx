@@ -7,7 +7,7 @@ const Board = ({
   fen, 
   playerColor = 'WHITE',
   onMove, 
-  legalMoves = [],
+  legalMoves = null,
   lastMove = null,
   isCheck = false,
   checkKingSquare = null,
@@ -32,6 +32,11 @@ const Board = ({
   }, [playerColor]);
 
   const fetchLegalMoves = useCallback(async (square) => {
+    // Served from the position's legal move map when we have it, without a request
+    if (legalMoves) {
+      setLegalMovesForSelected(legalMoves[square] || []);
+      return;
+    }
     if (onGetLegalMoves && gameId) {
       try {
         const moves = await onGetLegalMoves(gameId, square);
@@ -41,7 +46,7 @@ const Board = ({
         setLegalMovesForSelected([]);
       }
     }
-  }, [onGetLegalMoves, gameId]);
+  }, [legalMoves, onGetLegalMoves, gameId]);
 
   const handleSquareClick = useCallback(async (rank, file) => {
     if (disabled) return;
@@ -17,11 +17,11 @@ export const GameProvider = ({ children }) => {
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
 
-  const createGame = useCallback(async (timeControl, timeIncrement, isRated) => {
+  const createGame = useCallback(async (timeControl, timeIncrement, isRated, botLevel = null) => {
     try {
       setLoading(true);
       setError(null);
-      const game = await gameApi.createGame(timeControl, timeIncrement, isRated);
+      const game = await gameApi.createGame(timeControl, timeIncrement, isRated, botLevel);
       setCurrentGame(game);
       return game;
     } catch (err) {
@@ -115,6 +115,15 @@ export const GameProvider = ({ children }) => {
     }
   }, []);
 
+  const getLegalMoveMap = useCallback(async (gameId) => {
+    try {
+      return await gameApi.getLegalMoveMap(gameId);
+    } catch (err) {
+      setError(err.response?.data?.error || 'Failed to get legal moves');
+      throw err;
+    }
+  }, []);
+
   const resignGame = useCallback(async (gameId) => {
     try {
       setError(null);
@@ -143,6 +152,7 @@ export const GameProvider = ({ children }) => {
     loadActiveGames,
     makeMove,
     getLegalMoves,
+    getLegalMoveMap,
     resignGame,
     updateCurrentGame,
   };
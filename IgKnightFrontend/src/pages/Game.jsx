@@ -19,7 +19,7 @@ const Game = () => {
   const { user } = useAuth();
   const toast = useToast();
   const sound = useGameSound();
-  const { currentGame, loadGame, makeMove, resignGame, updateCurrentGame, joinGame, getLegalMoves } = useGame();
+  const { currentGame, loadGame, makeMove, resignGame, updateCurrentGame, joinGame, getLegalMoves, getLegalMoveMap } = useGame();
   const [clockSnapshot, setClockSnapshot] = useState(null);
   const [error, setError] = useState(null);
   const [playerColor, setPlayerColor] = useState('WHITE');
@@ -36,6 +36,7 @@ const Game = () => {
   const [chatInput, setChatInput] = useState('');
   const chatMessagesEndRef = useRef(null);
   const [handledGameEnd, setHandledGameEnd] = useState(false);
+  const [legalMoveMap, setLegalMoveMap] = useState(null);
 
   const handleGameUpdate = useCallback((gameData) => {
     updateCurrentGame(gameData);
@@ -85,6 +86,10 @@ const Game = () => {
       });
     }
 
+    if (moveData.legalMoves) {
+      setLegalMoveMap(moveData.legalMoves);
+    }
+
     if (moveData.isCheck && !moveData.isCheckmate) {
       setTimeout(() => sound.playCheck(), 100);
     }
@@ -144,8 +149,28 @@ const Game = () => {
     setChatMessages([]);
     setChatInput('');
     setHandledGameEnd(false);
+    setLegalMoveMap(null);
   }, [gameId]);
 
+  // Move broadcasts carry the legal move map of the new position; fetch it only when the
+  // position changed without one (page load, reconnect, REST fallback)
+  const currentFen = currentGame?.fenPosition;
+  const currentStatus = currentGame?.status;
+  useEffect(() => {
+    if (!gameId || !currentFen || currentStatus !== 'IN_PROGRESS' || legalMoveMap?.fen === currentFen) {
+      return undefined;
+    }
+    let cancelled = false;
+    getLegalMoveMap(gameId)
+      .then((map) => {
+        if (!cancelled) setLegalMoveMap(map);
+      })
+      .catch((err) => console.error('Failed to fetch legal moves:', err));
+    return () => {
+      cancelled = true;
+    };
+  }, [gameId, currentFen, currentStatus, legalMoveMap?.fen, getLegalMoveMap]);
+
   useEffect(() => {
     let initialGameStatus = null;
     let isCreatorAtMount = false;
@@ -503,6 +528,7 @@ const Game = () => {
             disabled={viewingMoveIndex !== null || !isPlayerTurn() || currentGame.status !== 'IN_PROGRESS'}
             gameId={gameId}
             onGetLegalMoves={getLegalMoves}
+            legalMoves={legalMoveMap?.fen === currentGame.fenPosition ? legalMoveMap.moves : null}
             lastMove={currentGame.moves && currentGame.moves.length > 0 ? {
               from: currentGame.moves[currentGame.moves.length - 1].from,
               to: currentGame.moves[currentGame.moves.length - 1].to,
@@ -29,12 +29,13 @@ apiClient.interceptors.request.use(
 
 // Game API functions
 export const gameApi = {
-  // Create a new game
-  createGame: async (timeControl = null, timeIncrement = 0, isRated = false) => {
+  // Create a new game; a botLevel from 1 to 10 starts a game against the bot instead
+  createGame: async (timeControl = null, timeIncrement = 0, isRated = false, botLevel = null) => {
     const response = await apiClient.post('/games', {
       timeControl,
       timeIncrement,
       isRated,
+      botLevel,
     });
     return response.data;
   },
@@ -79,6 +80,12 @@ export const gameApi = {
     return response.data;
   },
 
+  // Get every legal move of the current position, grouped by origin square
+  getLegalMoveMap: async (gameId) => {
+    const response = await apiClient.get(`/games/${gameId}/legal-moves`);
+    return response.data;
+  },
+
   // Resign game
   resignGame: async (gameId) => {
     const response = await apiClient.post(`/games/${gameId}/resign`);
@@ -0,0 +1,32 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+// Position corpus shared by the engine benchmarks, grouped by game phase
+public final class BenchmarkPositions {
+
+    public static final Map<String, List<String>> BY_PHASE = Map.of(
+        "opening", List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pp1ppppp/8/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2",
+            "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+            "rnbqkb1r/ppp2ppp/4pn2/3p4/2PP4/2N5/PP2PPPP/R1BQKBNR w KQkq - 2 4"
+        ),
+        "middlegame", List.of(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/3P4/2NBPN2/PP3PPP/R2Q1RK1 w - - 0 10",
+            "2rq1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/2RQ1RK1 w - - 0 11"
+        ),
+        "endgame", List.of(
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/5pk1/6p1/8/3R4/6P1/5PK1/8 w - - 0 40",
+            "8/8/3k4/8/3K4/4P3/8/8 w - - 0 1",
+            "6k1/5p2/6p1/8/3q4/8/5PP1/4Q1K1 w - - 0 45"
+        )
+    );
+
+    private BenchmarkPositions() {
+    }
+}
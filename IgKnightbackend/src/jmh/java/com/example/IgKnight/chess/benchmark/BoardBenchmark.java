@@ -0,0 +1,96 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Fen;
+import com.example.IgKnight.chess.engine.PackedPosition;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String phase;
+
+    private String[] fens;
+    private Board[] boards;
+    private byte[][] packedPositions;
+    private int index;
+    private final Board reusableBoard = Board.empty();
+    private final StringBuilder fenBuffer = new StringBuilder(90);
+    private final byte[] positionBuffer = new byte[PackedPosition.BYTES];
+
+    @Setup
+    public void setUp() {
+        List<String> positions = BenchmarkPositions.BY_PHASE.get(phase);
+        fens = positions.toArray(new String[0]);
+        boards = new Board[fens.length];
+        packedPositions = new byte[fens.length][];
+        for (int i = 0; i < fens.length; i++) {
+            boards[i] = Board.fromFEN(fens[i]);
+            packedPositions[i] = PackedPosition.encode(boards[i]);
+        }
+    }
+
+    private int next() {
+        index = index + 1 == fens.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Board fromFen() {
+        return Board.fromFEN(fens[next()]);
+    }
+
+    @Benchmark
+    public Board parseFenIntoBoard() {
+        Fen.parse(fens[next()], reusableBoard);
+        return reusableBoard;
+    }
+
+    @Benchmark
+    public String toFen() {
+        return boards[next()].toFEN();
+    }
+
+    @Benchmark
+    public int appendFen() {
+        fenBuffer.setLength(0);
+        return Fen.append(boards[next()], fenBuffer).length();
+    }
+
+    @Benchmark
+    public Board decodePackedPositionIntoBoard() {
+        PackedPosition.decode(packedPositions[next()], 0, reusableBoard);
+        return reusableBoard;
+    }
+
+    @Benchmark
+    public byte[] encodePackedPosition() {
+        PackedPosition.encode(boards[next()], positionBuffer, 0);
+        return positionBuffer;
+    }
+
+    @Benchmark
+    public Board copy() {
+        return boards[next()].copy();
+    }
+}
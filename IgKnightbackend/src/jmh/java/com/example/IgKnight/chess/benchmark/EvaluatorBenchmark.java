@@ -0,0 +1,151 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.nnue.NnueEvaluator;
+import com.example.IgKnight.chess.engine.nnue.NnueNetwork;
+import com.example.IgKnight.chess.engine.search.Evaluator;
+import com.example.IgKnight.chess.engine.search.HandcraftedEvaluator;
+import com.example.IgKnight.chess.engine.search.MaterialEvaluator;
+
+// One invocation evaluates one position. The pawn hash is warm after the first pass over the
+// corpus, as it is for almost every node of a real search. The *MakeUnmake variants play a move
+// first and take it back after, which is what a search node pays: for NNUE that includes the
+// incremental accumulator updates, for the others the running PST totals.
+// The network is random but full-sized, written to a temporary file and memory-mapped back in the
+// same way real weights are loaded. NNUE runs with and without the Vector API.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String phase;
+
+    private int[] moves;
+    private int index;
+    private MaterialEvaluator material;
+    private HandcraftedEvaluator handcrafted;
+    private NnueEvaluator nnue;
+    private NnueEvaluator nnueScalar;
+    // Each evaluator gets its own boards, so NNUE's accumulator listener only slows down its own runs
+    private Board[] materialBoards;
+    private Board[] handcraftedBoards;
+    private Board[] nnueBoards;
+    private Board[] nnueScalarBoards;
+
+    @Setup
+    public void setUp() throws IOException {
+        material = new MaterialEvaluator();
+        handcrafted = new HandcraftedEvaluator();
+        Path weights = Files.createTempFile("igknight-nnue", ".bin");
+        try {
+            NnueNetwork.random(1, 128, 32, 32).save(weights);
+            NnueNetwork network = NnueNetwork.load(weights);
+            nnue = new NnueEvaluator(network);
+            nnueScalar = new NnueEvaluator(network, false);
+        } finally {
+            Files.delete(weights);
+        }
+
+        List<String> fens = BenchmarkPositions.BY_PHASE.get(phase);
+        moves = new int[fens.size()];
+        materialBoards = boards(fens);
+        handcraftedBoards = boards(fens);
+        nnueBoards = boards(fens);
+        nnueScalarBoards = boards(fens);
+        for (int i = 0; i < fens.size(); i++) {
+            MoveList legal = new MoveList();
+            LegalMoveGenerator.generate(materialBoards[i], legal);
+            moves[i] = legal.get(legal.size() / 2);
+            // Attach the accumulators up front
+            nnue.evaluate(nnueBoards[i]);
+            nnueScalar.evaluate(nnueScalarBoards[i]);
+        }
+    }
+
+    private static Board[] boards(List<String> fens) {
+        Board[] boards = new Board[fens.size()];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Board.fromFEN(fens.get(i));
+        }
+        return boards;
+    }
+
+    private int next() {
+        int current = index;
+        index = index + 1 == moves.length ? 0 : index + 1;
+        return current;
+    }
+
+    private int makeEvaluateUnmake(Evaluator evaluator, Board[] boards) {
+        int i = next();
+        Board board = boards[i];
+        board.makeMove(moves[i]);
+        int score = evaluator.evaluate(board);
+        board.unmakeMove();
+        return score;
+    }
+
+    @Benchmark
+    public int material() {
+        return material.evaluate(materialBoards[next()]);
+    }
+
+    @Benchmark
+    public int handcrafted() {
+        return handcrafted.evaluate(handcraftedBoards[next()]);
+    }
+
+    @Benchmark
+    public int nnue() {
+        return nnue.evaluate(nnueBoards[next()]);
+    }
+
+    @Benchmark
+    public int nnueScalar() {
+        return nnueScalar.evaluate(nnueScalarBoards[next()]);
+    }
+
+    @Benchmark
+    public int materialMakeUnmake() {
+        return makeEvaluateUnmake(material, materialBoards);
+    }
+
+    @Benchmark
+    public int handcraftedMakeUnmake() {
+        return makeEvaluateUnmake(handcrafted, handcraftedBoards);
+    }
+
+    @Benchmark
+    public int nnueMakeUnmake() {
+        return makeEvaluateUnmake(nnue, nnueBoards);
+    }
+
+    @Benchmark
+    public int nnueScalarMakeUnmake() {
+        return makeEvaluateUnmake(nnueScalar, nnueScalarBoards);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.GameStatus;
+import com.example.IgKnight.chess.engine.Move;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.service.GameStateService;
+import com.example.IgKnight.chess.service.MoveGenerator;
+import com.example.IgKnight.chess.service.MoveValidator;
+
+// Each invocation handles one position (or, for validateMove, one submitted move), so the gc
+// profiler's gc.alloc.rate.norm reads directly as bytes allocated per position or per move
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String phase;
+
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private final MoveValidator moveValidator = new MoveValidator(moveGenerator);
+    private final GameStateService gameStateService = new GameStateService(moveValidator);
+
+    private final MoveList moveBuffer = new MoveList();
+
+    private Board[] boards;
+    private Board[] submittedBoards;
+    private Move[] submittedMoves;
+    private int boardIndex;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        List<String> fens = BenchmarkPositions.BY_PHASE.get(phase);
+        boards = new Board[fens.size()];
+        List<Board> moveBoards = new ArrayList<>();
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Board.fromFEN(fens.get(i));
+            // Submitted moves carry only from, to and promotion, like MakeMoveRequest
+            for (Move legal : moveValidator.generateLegalMoves(boards[i], boards[i].getCurrentTurn())) {
+                moveBoards.add(boards[i]);
+                moves.add(new Move(legal.getFrom(), legal.getTo(), legal.getPromotionPiece()));
+            }
+        }
+        submittedBoards = moveBoards.toArray(new Board[0]);
+        submittedMoves = moves.toArray(new Move[0]);
+    }
+
+    private Board nextBoard() {
+        boardIndex = boardIndex + 1 == boards.length ? 0 : boardIndex + 1;
+        return boards[boardIndex];
+    }
+
+    @Benchmark
+    public List<Move> generatePseudoLegalMoves() {
+        Board board = nextBoard();
+        return moveGenerator.generatePseudoLegalMoves(board, board.getCurrentTurn());
+    }
+
+    @Benchmark
+    public List<Move> generateLegalMoves() {
+        Board board = nextBoard();
+        return moveValidator.generateLegalMoves(board, board.getCurrentTurn());
+    }
+
+    @Benchmark
+    public int generateLegalMovesPacked() {
+        moveValidator.generateLegalMoves(nextBoard(), moveBuffer);
+        return moveBuffer.size();
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMove() {
+        Board board = nextBoard();
+        return moveValidator.hasAnyLegalMove(board, board.getCurrentTurn());
+    }
+
+    @Benchmark
+    public boolean validateMove() {
+        moveIndex = moveIndex + 1 == submittedMoves.length ? 0 : moveIndex + 1;
+        return moveValidator.validateMove(submittedBoards[moveIndex], submittedMoves[moveIndex]);
+    }
+
+    @Benchmark
+    public GameStatus determineGameStatus() {
+        return gameStateService.determineGameStatus(nextBoard());
+    }
+}
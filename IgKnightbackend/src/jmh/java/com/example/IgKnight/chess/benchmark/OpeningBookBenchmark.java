@@ -0,0 +1,94 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.book.PolyglotBook;
+import com.example.IgKnight.chess.engine.book.PolyglotBookWriter;
+
+// Book lookups against a memory-mapped book built from random openings. Hits pay for the binary
+// search plus matching entries against the legal moves; misses only for the binary search.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpeningBookBenchmark {
+
+    @Param({"1000", "100000"})
+    private int games;
+
+    private Path file;
+    private PolyglotBook book;
+    private Board[] inBook;
+    private Board[] outOfBook;
+    private int index;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(1);
+        PolyglotBookWriter writer = new PolyglotBookWriter();
+        List<Board> positions = new ArrayList<>();
+        MoveList legal = new MoveList();
+        for (int game = 0; game < games; game++) {
+            Board board = new Board();
+            for (int ply = 0; ply < 16; ply++) {
+                legal.clear();
+                LegalMoveGenerator.generate(board, legal);
+                if (legal.isEmpty()) {
+                    break;
+                }
+                int move = legal.get(random.nextInt(legal.size()));
+                writer.add(board, move, 1);
+                if (positions.size() < 1024) {
+                    positions.add(board.copy());
+                }
+                board.makeMove(move);
+            }
+        }
+        file = Files.createTempFile("igknight-book", ".bin");
+        writer.write(file);
+        book = PolyglotBook.open(file);
+        inBook = positions.toArray(new Board[0]);
+        outOfBook = BenchmarkPositions.BY_PHASE.get("endgame").stream().map(Board::fromFEN).toArray(Board[]::new);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int lookupHit() {
+        index = index + 1 == inBook.length ? 0 : index + 1;
+        return book.pickMove(inBook[index]);
+    }
+
+    @Benchmark
+    public int lookupMiss() {
+        index = index + 1 >= outOfBook.length ? 0 : index + 1;
+        return book.pickMove(outOfBook[index]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.perft.ParallelPerft;
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+// Time for one kiwipete perft at each pool size; dividing the 1-thread score by the N-thread
+// score gives the speedup, and that over N the scaling efficiency
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelPerftBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    @Param({"5"})
+    private int depth;
+
+    private ForkJoinPool pool;
+    private ParallelPerft perft;
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        perft = new ParallelPerft(pool);
+        board = Board.fromFEN(PerftPosition.REFERENCE.get(1).getFen());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long perft() {
+        return perft.perft(board, depth);
+    }
+}
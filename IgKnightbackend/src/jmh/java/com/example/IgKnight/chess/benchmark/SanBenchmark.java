@@ -0,0 +1,80 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveMap;
+import com.example.IgKnight.chess.engine.San;
+
+// One invocation formats or parses a single move against its position's precomputed legal
+// moves, the way a PGN import or export walks a game
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String phase;
+
+    private Board[] boards;
+    private LegalMoveMap[] legalMoves;
+    private int[] moves;
+    private String[] sans;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        List<Board> moveBoards = new ArrayList<>();
+        List<LegalMoveMap> moveMaps = new ArrayList<>();
+        List<Integer> packedMoves = new ArrayList<>();
+        List<String> notations = new ArrayList<>();
+        for (String fen : BenchmarkPositions.BY_PHASE.get(phase)) {
+            Board board = Board.fromFEN(fen);
+            LegalMoveMap map = LegalMoveMap.of(board);
+            for (int i = 0; i < map.size(); i++) {
+                moveBoards.add(board);
+                moveMaps.add(map);
+                packedMoves.add(map.get(i));
+                notations.add(San.format(board, map.get(i), map));
+            }
+        }
+        boards = moveBoards.toArray(new Board[0]);
+        legalMoves = moveMaps.toArray(new LegalMoveMap[0]);
+        moves = packedMoves.stream().mapToInt(Integer::intValue).toArray();
+        sans = notations.toArray(new String[0]);
+    }
+
+    private int next() {
+        index = index + 1 == moves.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public String format() {
+        int i = next();
+        return San.format(boards[i], moves[i], legalMoves[i]);
+    }
+
+    @Benchmark
+    public int parse() {
+        int i = next();
+        return San.parse(boards[i], sans[i], legalMoves[i]);
+    }
+}
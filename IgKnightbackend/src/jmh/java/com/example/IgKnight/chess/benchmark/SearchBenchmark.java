@@ -0,0 +1,72 @@
+package com.example.IgKnight.chess.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.search.LazySmpSearch;
+import com.example.IgKnight.chess.engine.search.MaterialEvaluator;
+import com.example.IgKnight.chess.engine.search.SearchLimits;
+
+// Time to depth for Lazy SMP at each thread count, starting every invocation from an empty
+// transposition table. Dividing the 1-thread time by the N-thread time gives the speedup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int MAX_THREADS = 16;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    @Param({"7"})
+    private int depth;
+
+    private LazySmpSearch search;
+    private Board[] boards;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        search = new LazySmpSearch(new MaterialEvaluator(), 64, MAX_THREADS);
+        List<String> fens = BenchmarkPositions.BY_PHASE.get("middlegame");
+        boards = new Board[fens.size()];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Board.fromFEN(fens.get(i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+        index = index + 1 == boards.length ? 0 : index + 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public int timeToDepth() {
+        return search.search(boards[index], SearchLimits.depth(depth), threads).getBestMove();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,10 +14,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.IgKnight.chess.dto.AnalysisResponse;
 import com.example.IgKnight.chess.dto.CreateGameRequest;
 import com.example.IgKnight.chess.dto.GameResponse;
+import com.example.IgKnight.chess.dto.LegalMoveMapResponse;
 import com.example.IgKnight.chess.dto.LegalMovesResponse;
 import com.example.IgKnight.chess.dto.MakeMoveRequest;
 import com.example.IgKnight.chess.service.GameService;
@@ -86,6 +90,31 @@ public class GameController {
         return ResponseEntity.ok(game);
     }
 
+    @GetMapping("/games/{gameId}/legal-moves")
+    public ResponseEntity<LegalMoveMapResponse> getLegalMoveMap(@PathVariable Long gameId) {
+        LegalMoveMapResponse legalMoves = gameService.getLegalMoveMap(gameId);
+        return ResponseEntity.ok(legalMoves);
+    }
+
+    @GetMapping(value = "/games/{gameId}/position", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getPackedPosition(@PathVariable Long gameId) {
+        byte[] position = gameService.getPackedPosition(gameId);
+        return ResponseEntity.ok(position);
+    }
+
+    @GetMapping("/games/{gameId}/analysis")
+    public ResponseEntity<AnalysisResponse> analyzeGame(
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "0") int depth,
+            @RequestParam(defaultValue = "0") long timeMs,
+            @RequestParam(defaultValue = "0") int threads,
+            Authentication authentication) {
+        // Signed-in users only; 0 for any limit means the configured default
+        getUserIdFromAuthentication(authentication);
+        AnalysisResponse analysis = gameService.analyzeGame(gameId, depth, timeMs, threads);
+        return ResponseEntity.ok(analysis);
+    }
+
     @GetMapping("/games/{gameId}/legal-moves/{square}")
     public ResponseEntity<LegalMovesResponse> getLegalMoves(
             @PathVariable Long gameId,
@@ -0,0 +1,98 @@
+package com.example.IgKnight.chess.dto;
+
+import java.util.List;
+
+public class AnalysisResponse {
+    private String fen;
+    private String bestMove; // from and to squares plus any promotion letter, e.g. "e7e8q"
+    private int score; // centipawns for the side to move
+    private boolean mateScore;
+    private int depth;
+    private long nodes;
+    private long nodesPerSecond;
+    private int threads;
+    private List<String> principalVariation;
+    private boolean fromBook; // bestMove came from the opening book and no search was run
+
+    public AnalysisResponse() {}
+
+    public String getFen() {
+        return fen;
+    }
+
+    public void setFen(String fen) {
+        this.fen = fen;
+    }
+
+    public String getBestMove() {
+        return bestMove;
+    }
+
+    public void setBestMove(String bestMove) {
+        this.bestMove = bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public boolean isMateScore() {
+        return mateScore;
+    }
+
+    public void setMateScore(boolean mateScore) {
+        this.mateScore = mateScore;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public long getNodesPerSecond() {
+        return nodesPerSecond;
+    }
+
+    public void setNodesPerSecond(long nodesPerSecond) {
+        this.nodesPerSecond = nodesPerSecond;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public List<String> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public void setPrincipalVariation(List<String> principalVariation) {
+        this.principalVariation = principalVariation;
+    }
+
+    public boolean isFromBook() {
+        return fromBook;
+    }
+
+    public void setFromBook(boolean fromBook) {
+        this.fromBook = fromBook;
+    }
+}
@@ -4,6 +4,7 @@ public class CreateGameRequest {
     private Integer timeControl; // in seconds, null for unlimited
     private Integer timeIncrement; // in seconds
     private Boolean isRated;
+    private Integer botLevel; // 1-10 to play the bot, null to be matched with another player
 
     public CreateGameRequest() {}
 
@@ -30,4 +31,12 @@ public class CreateGameRequest {
     public void setIsRated(Boolean isRated) {
         this.isRated = isRated;
     }
+
+    public Integer getBotLevel() {
+        return botLevel;
+    }
+
+    public void setBotLevel(Integer botLevel) {
+        this.botLevel = botLevel;
+    }
 }
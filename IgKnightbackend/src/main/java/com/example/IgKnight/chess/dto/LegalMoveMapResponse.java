@@ -0,0 +1,42 @@
+package com.example.IgKnight.chess.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class LegalMoveMapResponse {
+    private String fen;
+    // Origin square -> legal destination squares, for every piece of the side to move
+    private Map<String, List<String>> moves;
+    // Origin square -> destinations that promote and need a piece choice
+    private Map<String, List<String>> promotions;
+
+    public LegalMoveMapResponse(String fen, Map<String, List<String>> moves, Map<String, List<String>> promotions) {
+        this.fen = fen;
+        this.moves = moves;
+        this.promotions = promotions;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public void setFen(String fen) {
+        this.fen = fen;
+    }
+
+    public Map<String, List<String>> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(Map<String, List<String>> moves) {
+        this.moves = moves;
+    }
+
+    public Map<String, List<String>> getPromotions() {
+        return promotions;
+    }
+
+    public void setPromotions(Map<String, List<String>> promotions) {
+        this.promotions = promotions;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.IgKnight.chess.engine;
+
+// Attack sets for every piece type, built once when the class loads.
+// Sliders use magic bitboards: the relevant blockers on a square's rays are multiplied by a
+// per-square magic number and the top bits of the product index a precomputed attack table.
+public final class Attacks {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    // Per-rank seeds that make the magic search below converge quickly
+    private static final long[] MAGIC_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+
+    static {
+        int[][] knightOffsets = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+        int[][] kingOffsets = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = offsetAttacks(square, knightOffsets);
+            KING[square] = offsetAttacks(square, kingOffsets);
+            PAWN[Color.WHITE.ordinal()][square] = offsetAttacks(square, new int[][]{{1, 1}, {1, -1}});
+            PAWN[Color.BLACK.ordinal()][square] = offsetAttacks(square, new int[][]{{-1, 1}, {-1, -1}});
+        }
+
+        initMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE);
+        initMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE);
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long bBit = 1L << b;
+                if ((rook(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = rook(a, bBit) & rook(b, 1L << a);
+                    LINE[a][b] = (rook(a, 0L) & rook(b, 0L)) | (1L << a) | bBit;
+                } else if ((bishop(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = bishop(a, bBit) & bishop(b, 1L << a);
+                    LINE[a][b] = (bishop(a, 0L) & bishop(b, 0L)) | (1L << a) | bBit;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    public static long pawn(Color color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    // Squares strictly between two squares on a shared rank, file or diagonal; empty otherwise
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    // The full rank, file or diagonal through both squares; empty if they are not aligned
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long offsetAttacks(int square, int[][] offsets) {
+        int rank = square >>> 3;
+        int file = square & 7;
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int r = rank + offset[0];
+            int f = file + offset[1];
+            if (r >= 0 && r < 8 && f >= 0 && f < 8) {
+                attacks |= 1L << (r * 8 + f);
+            }
+        }
+        return attacks;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        int rank = square >>> 3;
+        int file = square & 7;
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int r = rank + direction[0];
+            int f = file + direction[1];
+            while (r >= 0 && r < 8 && f >= 0 && f < 8) {
+                long bit = 1L << (r * 8 + f);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += direction[0];
+                f += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static void initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] tables) {
+        long[] occupancies = new long[4096];
+        long[] reference = new long[4096];
+        int[] epoch = new int[4096];
+        int attempt = 0;
+
+        for (int square = 0; square < 64; square++) {
+            // Board edges never block a ray, so they are left out of the relevant occupancy mask
+            long edges = ((Bitboards.RANK_1 | Bitboards.RANK_8) & ~rankMask(square))
+                    | ((Bitboards.FILE_A | Bitboards.FILE_H) & ~fileMask(square));
+            long mask = slidingAttacks(square, 0L, directions) & ~edges;
+            int bits = Long.bitCount(mask);
+            int size = 1 << bits;
+
+            masks[square] = mask;
+            shifts[square] = 64 - bits;
+            tables[square] = new long[size];
+
+            // Enumerate every subset of the mask with the carry-rippler trick
+            long subset = 0L;
+            for (int i = 0; i < size; i++) {
+                occupancies[i] = subset;
+                reference[i] = slidingAttacks(square, subset, directions);
+                subset = (subset - mask) & mask;
+            }
+
+            long seed = MAGIC_SEEDS[square >>> 3];
+            boolean found = false;
+            while (!found) {
+                long magic;
+                do {
+                    seed = xorshift(seed);
+                    long a = seed * 2685821657736338717L;
+                    seed = xorshift(seed);
+                    long b = seed * 2685821657736338717L;
+                    seed = xorshift(seed);
+                    long c = seed * 2685821657736338717L;
+                    magic = a & b & c;
+                } while (Long.bitCount((mask * magic) >>> 56) < 6);
+
+                attempt++;
+                found = true;
+                for (int i = 0; i < size; i++) {
+                    int index = (int) ((occupancies[i] * magic) >>> shifts[square]);
+                    if (epoch[index] < attempt) {
+                        epoch[index] = attempt;
+                        tables[square][index] = reference[i];
+                    } else if (tables[square][index] != reference[i]) {
+                        found = false;
+                        break;
+                    }
+                }
+                if (found) {
+                    magics[square] = magic;
+                }
+            }
+        }
+    }
+
+    private static long xorshift(long seed) {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed;
+    }
+
+    private static long rankMask(int square) {
+        return Bitboards.RANK_1 << (8 * (square >>> 3));
+    }
+
+    private static long fileMask(int square) {
+        return Bitboards.FILE_A << (square & 7);
+    }
+}
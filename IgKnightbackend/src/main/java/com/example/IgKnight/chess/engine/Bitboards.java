@@ -0,0 +1,59 @@
+package com.example.IgKnight.chess.engine;
+
+// Square indexing is little-endian rank-file: a1 = 0, b1 = 1, ..., h8 = 63
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    public static final long DARK_SQUARES = ~LIGHT_SQUARES;
+
+    private Bitboards() {
+    }
+
+    public static int square(int rank, int file) {
+        return (rank - 1) * 8 + (file - 1);
+    }
+
+    public static int square(Position position) {
+        return position.getIndex();
+    }
+
+    public static int rankOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int fileOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static Position toPosition(int square) {
+        return Position.of(square);
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static int lowestSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    public static int pieceIndex(PieceType type, Color color) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+}
@@ -1,59 +1,114 @@
 package com.example.IgKnight.chess.engine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-public class Board {
-    private final Piece[][] squares;
+public final class Board {
+    private final Piece[] squares;
+    private final long[] pieceBitboards;
+    private final long[] colorBitboards;
+    // Kept in step with the bitboards by setPiece: piece counts per type and color, king squares,
+    // non-king material per color, the PieceSquareTables sums and the key of the pawns alone
+    private final int[] pieceCounts;
+    private final int[] kingSquares;
+    private final int[] material;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    private long pawnKey;
+    // Optional; not carried over by copy()
+    private PieceListener pieceListener;
+    private long occupied;
     private Color currentTurn;
-    private Position enPassantTarget;
-    private boolean whiteCanCastleKingside;
-    private boolean whiteCanCastleQueenside;
-    private boolean blackCanCastleKingside;
-    private boolean blackCanCastleQueenside;
+    private int enPassantSquare;
+    private int castlingRights;
     private int halfMoveClock;
     private int fullMoveNumber;
-    private final List<String> positionHistory;
+    private long zobristKey;
+    private long enPassantKey;
+    private long[] keyHistory;
+    private int keyHistoryCount;
+    private MoveUndo[] undoStack;
+    private int undoCount;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int NO_SQUARE = -1;
+
+    // Castling rights that survive a move touching each square (rook corners and king homes)
+    private static final int[] CASTLING_RIGHTS_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_RIGHTS_KEPT, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_RIGHTS_KEPT[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_RIGHTS_KEPT[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_RIGHTS_KEPT[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_RIGHTS_KEPT[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_RIGHTS_KEPT[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_RIGHTS_KEPT[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
 
     public Board() {
-        this.squares = new Piece[8][8];
+        this(true);
+    }
+
+    private Board(boolean standardPosition) {
+        this.squares = new Piece[64];
+        this.pieceBitboards = new long[12];
+        this.colorBitboards = new long[2];
+        this.pieceCounts = new int[12];
+        this.kingSquares = new int[]{NO_SQUARE, NO_SQUARE};
+        this.material = new int[2];
+        this.occupied = 0L;
         this.currentTurn = Color.WHITE;
-        this.enPassantTarget = null;
-        this.whiteCanCastleKingside = true;
-        this.whiteCanCastleQueenside = true;
-        this.blackCanCastleKingside = true;
-        this.blackCanCastleQueenside = true;
+        this.enPassantSquare = NO_SQUARE;
+        this.castlingRights = standardPosition ? WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE : 0;
         this.halfMoveClock = 0;
         this.fullMoveNumber = 1;
-        this.positionHistory = new ArrayList<>();
-        initializeStandardPosition();
+        this.zobristKey = Zobrist.castling(castlingRights);
+        this.enPassantKey = 0L;
+        this.keyHistory = new long[64];
+        this.keyHistoryCount = 0;
+        this.undoStack = new MoveUndo[16];
+        this.undoCount = 0;
+        if (standardPosition) {
+            initializeStandardPosition();
+        }
+    }
+
+    // A board with no pieces, for loading a position without first building the starting one
+    public static Board empty() {
+        return new Board(false);
     }
 
     private void initializeStandardPosition() {
         // White pieces
-        setPiece(new Position(1, 1), new Piece(PieceType.ROOK, Color.WHITE));
-        setPiece(new Position(1, 2), new Piece(PieceType.KNIGHT, Color.WHITE));
-        setPiece(new Position(1, 3), new Piece(PieceType.BISHOP, Color.WHITE));
-        setPiece(new Position(1, 4), new Piece(PieceType.QUEEN, Color.WHITE));
-        setPiece(new Position(1, 5), new Piece(PieceType.KING, Color.WHITE));
-        setPiece(new Position(1, 6), new Piece(PieceType.BISHOP, Color.WHITE));
-        setPiece(new Position(1, 7), new Piece(PieceType.KNIGHT, Color.WHITE));
-        setPiece(new Position(1, 8), new Piece(PieceType.ROOK, Color.WHITE));
+        setPiece(Position.of(1, 1), new Piece(PieceType.ROOK, Color.WHITE));
+        setPiece(Position.of(1, 2), new Piece(PieceType.KNIGHT, Color.WHITE));
+        setPiece(Position.of(1, 3), new Piece(PieceType.BISHOP, Color.WHITE));
+        setPiece(Position.of(1, 4), new Piece(PieceType.QUEEN, Color.WHITE));
+        setPiece(Position.of(1, 5), new Piece(PieceType.KING, Color.WHITE));
+        setPiece(Position.of(1, 6), new Piece(PieceType.BISHOP, Color.WHITE));
+        setPiece(Position.of(1, 7), new Piece(PieceType.KNIGHT, Color.WHITE));
+        setPiece(Position.of(1, 8), new Piece(PieceType.ROOK, Color.WHITE));
         for (int file = 1; file <= 8; file++) {
-            setPiece(new Position(2, file), new Piece(PieceType.PAWN, Color.WHITE));
+            setPiece(Position.of(2, file), new Piece(PieceType.PAWN, Color.WHITE));
         }
 
         // Black pieces
-        setPiece(new Position(8, 1), new Piece(PieceType.ROOK, Color.BLACK));
-        setPiece(new Position(8, 2), new Piece(PieceType.KNIGHT, Color.BLACK));
-        setPiece(new Position(8, 3), new Piece(PieceType.BISHOP, Color.BLACK));
-        setPiece(new Position(8, 4), new Piece(PieceType.QUEEN, Color.BLACK));
-        setPiece(new Position(8, 5), new Piece(PieceType.KING, Color.BLACK));
-        setPiece(new Position(8, 6), new Piece(PieceType.BISHOP, Color.BLACK));
-        setPiece(new Position(8, 7), new Piece(PieceType.KNIGHT, Color.BLACK));
-        setPiece(new Position(8, 8), new Piece(PieceType.ROOK, Color.BLACK));
+        setPiece(Position.of(8, 1), new Piece(PieceType.ROOK, Color.BLACK));
+        setPiece(Position.of(8, 2), new Piece(PieceType.KNIGHT, Color.BLACK));
+        setPiece(Position.of(8, 3), new Piece(PieceType.BISHOP, Color.BLACK));
+        setPiece(Position.of(8, 4), new Piece(PieceType.QUEEN, Color.BLACK));
+        setPiece(Position.of(8, 5), new Piece(PieceType.KING, Color.BLACK));
+        setPiece(Position.of(8, 6), new Piece(PieceType.BISHOP, Color.BLACK));
+        setPiece(Position.of(8, 7), new Piece(PieceType.KNIGHT, Color.BLACK));
+        setPiece(Position.of(8, 8), new Piece(PieceType.ROOK, Color.BLACK));
         for (int file = 1; file <= 8; file++) {
-            setPiece(new Position(7, file), new Piece(PieceType.PAWN, Color.BLACK));
+            setPiece(Position.of(7, file), new Piece(PieceType.PAWN, Color.BLACK));
         }
     }
 
@@ -61,12 +116,71 @@ public class Board {
         if (position == null || !position.isValid()) {
             return null;
         }
-        return squares[position.getRank() - 1][position.getFile() - 1];
+        return squares[Bitboards.square(position)];
+    }
+
+    public Piece getPiece(int square) {
+        return squares[square];
     }
 
     public void setPiece(Position position, Piece piece) {
         if (position != null && position.isValid()) {
-            squares[position.getRank() - 1][position.getFile() - 1] = piece;
+            setPiece(Bitboards.square(position), piece);
+        }
+    }
+
+    public void setPiece(int square, Piece piece) {
+        Piece existing = squares[square];
+        long mask = Bitboards.bit(square);
+        if (existing != null) {
+            int index = Bitboards.pieceIndex(existing.getType(), existing.getColor());
+            int color = existing.getColor().ordinal();
+            pieceBitboards[index] &= ~mask;
+            colorBitboards[color] &= ~mask;
+            occupied &= ~mask;
+            long pieceKey = Zobrist.piece(existing.getType(), existing.getColor(), square);
+            zobristKey ^= pieceKey;
+            pieceCounts[index]--;
+            middlegameScore -= PieceSquareTables.middlegame(index, square);
+            endgameScore -= PieceSquareTables.endgame(index, square);
+            phase -= PieceSquareTables.phase(index);
+            if (existing.getType() == PieceType.PAWN) {
+                pawnKey ^= pieceKey;
+            }
+            if (existing.getType() == PieceType.KING) {
+                long kings = pieceBitboards[index];
+                kingSquares[color] = kings != 0 ? Bitboards.lowestSquare(kings) : NO_SQUARE;
+            } else {
+                material[color] -= existing.getType().getValue();
+            }
+            if (pieceListener != null) {
+                pieceListener.pieceRemoved(index, square);
+            }
+        }
+        squares[square] = piece;
+        if (piece != null) {
+            int index = Bitboards.pieceIndex(piece.getType(), piece.getColor());
+            int color = piece.getColor().ordinal();
+            pieceBitboards[index] |= mask;
+            colorBitboards[color] |= mask;
+            occupied |= mask;
+            long pieceKey = Zobrist.piece(piece.getType(), piece.getColor(), square);
+            zobristKey ^= pieceKey;
+            pieceCounts[index]++;
+            middlegameScore += PieceSquareTables.middlegame(index, square);
+            endgameScore += PieceSquareTables.endgame(index, square);
+            phase += PieceSquareTables.phase(index);
+            if (piece.getType() == PieceType.PAWN) {
+                pawnKey ^= pieceKey;
+            }
+            if (piece.getType() == PieceType.KING) {
+                kingSquares[color] = square;
+            } else {
+                material[color] += piece.getType().getValue();
+            }
+            if (pieceListener != null) {
+                pieceListener.pieceAdded(index, square);
+            }
         }
     }
 
@@ -74,38 +188,148 @@ public class Board {
         setPiece(position, null);
     }
 
+    public void removePiece(int square) {
+        setPiece(square, null);
+    }
+
+    public long getPieces(PieceType type, Color color) {
+        return pieceBitboards[Bitboards.pieceIndex(type, color)];
+    }
+
+    public long getPieces(Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    public int getPieceCount(PieceType type, Color color) {
+        return pieceCounts[Bitboards.pieceIndex(type, color)];
+    }
+
+    public int getPieceCount(Color color) {
+        return Long.bitCount(colorBitboards[color.ordinal()]);
+    }
+
+    // Sum of PieceType values, kings excluded
+    public int getMaterial(Color color) {
+        return material[color.ordinal()];
+    }
+
+    // K v K, K+minor v K, and K+B v K+B with both bishops on the same square color
+    public boolean isInsufficientMaterial() {
+        int white = Color.WHITE.ordinal() * 6;
+        int black = Color.BLACK.ordinal() * 6;
+        if (pieceCounts[white + PieceType.PAWN.ordinal()] + pieceCounts[black + PieceType.PAWN.ordinal()]
+                + pieceCounts[white + PieceType.ROOK.ordinal()] + pieceCounts[black + PieceType.ROOK.ordinal()]
+                + pieceCounts[white + PieceType.QUEEN.ordinal()] + pieceCounts[black + PieceType.QUEEN.ordinal()] != 0) {
+            return false;
+        }
+        int whiteBishops = pieceCounts[white + PieceType.BISHOP.ordinal()];
+        int blackBishops = pieceCounts[black + PieceType.BISHOP.ordinal()];
+        int whiteMinors = whiteBishops + pieceCounts[white + PieceType.KNIGHT.ordinal()];
+        int blackMinors = blackBishops + pieceCounts[black + PieceType.KNIGHT.ordinal()];
+
+        if (whiteMinors + blackMinors <= 1) {
+            return true;
+        }
+        if (whiteBishops == 1 && blackBishops == 1 && whiteMinors == 1 && blackMinors == 1) {
+            long bishops = getPieces(PieceType.BISHOP, Color.WHITE) | getPieces(PieceType.BISHOP, Color.BLACK);
+            return (bishops & Bitboards.LIGHT_SQUARES) == 0 || (bishops & Bitboards.DARK_SQUARES) == 0;
+        }
+        return false;
+    }
+
+    // Material plus piece-square score from white's point of view, for the middlegame and endgame
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    // From PieceSquareTables.MAX_PHASE with all pieces on down to 0 with only kings and pawns;
+    // promotions can push it past the maximum
+    public int getPhase() {
+        return phase;
+    }
+
+    // Zobrist key of the pawns alone, for caching pawn-structure evaluation
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    public PieceListener getPieceListener() {
+        return pieceListener;
+    }
+
+    // Replaces any previous listener; the new one only hears about changes from now on
+    public void setPieceListener(PieceListener listener) {
+        this.pieceListener = listener;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    // Looks outward from the square with each piece's attack pattern and intersects the result
+    // with the attacking side's pieces, so no opponent moves are generated
+    public long attackersTo(int square, Color byColor, long occupancy) {
+        long queens = getPieces(PieceType.QUEEN, byColor);
+        return (Attacks.pawn(byColor.opposite(), square) & getPieces(PieceType.PAWN, byColor))
+                | (Attacks.knight(square) & getPieces(PieceType.KNIGHT, byColor))
+                | (Attacks.king(square) & getPieces(PieceType.KING, byColor))
+                | (Attacks.bishop(square, occupancy) & (getPieces(PieceType.BISHOP, byColor) | queens))
+                | (Attacks.rook(square, occupancy) & (getPieces(PieceType.ROOK, byColor) | queens));
+    }
+
+    public boolean isSquareAttacked(int square, Color byColor) {
+        return attackersTo(square, byColor, occupied) != 0;
+    }
+
     public Color getCurrentTurn() {
         return currentTurn;
     }
 
     public void setCurrentTurn(Color turn) {
+        if (turn != currentTurn) {
+            zobristKey ^= Zobrist.sideToMove();
+        }
         this.currentTurn = turn;
+        updateEnPassantKey();
     }
 
     public Position getEnPassantTarget() {
-        return enPassantTarget;
+        return enPassantSquare != NO_SQUARE ? Bitboards.toPosition(enPassantSquare) : null;
     }
 
     public void setEnPassantTarget(Position target) {
-        this.enPassantTarget = target;
+        this.enPassantSquare = target != null ? Bitboards.square(target) : NO_SQUARE;
+        updateEnPassantKey();
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
     }
 
     public boolean canCastleKingside(Color color) {
-        return color == Color.WHITE ? whiteCanCastleKingside : blackCanCastleKingside;
+        return (castlingRights & (color == Color.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE)) != 0;
     }
 
     public boolean canCastleQueenside(Color color) {
-        return color == Color.WHITE ? whiteCanCastleQueenside : blackCanCastleQueenside;
+        return (castlingRights & (color == Color.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE)) != 0;
     }
 
     public void setCastlingRights(Color color, boolean kingside, boolean queenside) {
-        if (color == Color.WHITE) {
-            whiteCanCastleKingside = kingside;
-            whiteCanCastleQueenside = queenside;
-        } else {
-            blackCanCastleKingside = kingside;
-            blackCanCastleQueenside = queenside;
-        }
+        int kingsideFlag = color == Color.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queensideFlag = color == Color.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        zobristKey ^= Zobrist.castling(castlingRights);
+        castlingRights &= ~(kingsideFlag | queensideFlag);
+        if (kingside) castlingRights |= kingsideFlag;
+        if (queenside) castlingRights |= queensideFlag;
+        zobristKey ^= Zobrist.castling(castlingRights);
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
     }
 
     public int getHalfMoveClock() {
@@ -136,171 +360,293 @@ public class Board {
         fullMoveNumber++;
     }
 
-    public Position findKing(Color color) {
-        for (int rank = 1; rank <= 8; rank++) {
-            for (int file = 1; file <= 8; file++) {
-                Position pos = new Position(rank, file);
-                Piece piece = getPiece(pos);
-                if (piece != null && piece.getType() == PieceType.KING && piece.getColor() == color) {
-                    return pos;
-                }
-            }
-        }
-        return null;
+    public void makeMove(Move move) {
+        makeMove(PackedMove.encode(move));
     }
 
-    public List<Position> getAllPiecesPositions(Color color) {
-        List<Position> positions = new ArrayList<>();
-        for (int rank = 1; rank <= 8; rank++) {
-            for (int file = 1; file <= 8; file++) {
-                Position pos = new Position(rank, file);
-                Piece piece = getPiece(pos);
-                if (piece != null && piece.getColor() == color) {
-                    positions.add(pos);
-                }
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = squares[from];
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece on " + Position.of(from));
+        }
+        Color color = piece.getColor();
+        PieceType type = piece.getType();
+
+        MoveUndo undo = pushUndo();
+        undo.from = from;
+        undo.to = to;
+        undo.movedPiece = piece;
+        undo.movedPieceHadMoved = piece.hasMoved();
+        undo.capturedPiece = null;
+        undo.castlingRook = null;
+        undo.castlingRights = castlingRights;
+        undo.enPassantSquare = enPassantSquare;
+        undo.halfMoveClock = halfMoveClock;
+        undo.fullMoveNumber = fullMoveNumber;
+        undo.zobristKey = zobristKey;
+        undo.enPassantKey = enPassantKey;
+        pushKeyHistory(zobristKey);
+
+        int previousEnPassant = enPassantSquare;
+        enPassantSquare = NO_SQUARE;
+        zobristKey ^= enPassantKey ^ Zobrist.castling(castlingRights) ^ Zobrist.sideToMove();
+        enPassantKey = 0L;
+
+        // Castling is recognised by the king travelling two files, so unflagged moves work too
+        if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            Piece rook = squares[rookFrom];
+            setPiece(from, null);
+            setPiece(to, piece);
+            if (rook != null) {
+                undo.castlingRook = rook;
+                undo.castlingRookHadMoved = rook.hasMoved();
+                undo.rookFrom = rookFrom;
+                undo.rookTo = rookTo;
+                setPiece(rookFrom, null);
+                setPiece(rookTo, rook);
+                rook.setMoved(true);
+            }
+            halfMoveClock++;
+        } else {
+            int capturedSquare = to;
+            if (type == PieceType.PAWN && to == previousEnPassant && squares[to] == null) {
+                capturedSquare = color == Color.WHITE ? to - 8 : to + 8;
+            }
+            Piece captured = squares[capturedSquare];
+            if (captured != null) {
+                undo.capturedPiece = captured;
+                undo.capturedSquare = capturedSquare;
+                setPiece(capturedSquare, null);
+            }
+
+            setPiece(from, null);
+            if (type == PieceType.PAWN && PackedMove.isPromotion(move)) {
+                setPiece(to, new Piece(PackedMove.promotion(move), color, true));
+            } else {
+                setPiece(to, piece);
+            }
+
+            if (type == PieceType.PAWN && Math.abs(to - from) == 16) {
+                enPassantSquare = (from + to) / 2;
+            }
+
+            if (captured != null || type == PieceType.PAWN) {
+                halfMoveClock = 0;
+            } else {
+                halfMoveClock++;
             }
         }
-        return positions;
-    }
 
-    public void addToPositionHistory(String fenPosition) {
-        positionHistory.add(fenPosition);
+        piece.setMoved(true);
+        castlingRights &= CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to];
+        zobristKey ^= Zobrist.castling(castlingRights);
+        if (color == Color.BLACK) {
+            fullMoveNumber++;
+        }
+        currentTurn = color.opposite();
+        updateEnPassantKey();
     }
 
-    public int countPositionOccurrences(String fenPosition) {
-        return (int) positionHistory.stream().filter(pos -> pos.equals(fenPosition)).count();
-    }
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        MoveUndo undo = undoStack[--undoCount];
+        Piece piece = undo.movedPiece;
 
-    public Board copy() {
-        Board newBoard = new Board();
-        // Clear the new board
-        for (int rank = 1; rank <= 8; rank++) {
-            for (int file = 1; file <= 8; file++) {
-                newBoard.removePiece(new Position(rank, file));
-            }
+        setPiece(undo.to, null);
+        setPiece(undo.from, piece);
+        piece.setMoved(undo.movedPieceHadMoved);
+
+        if (undo.castlingRook != null) {
+            setPiece(undo.rookTo, null);
+            setPiece(undo.rookFrom, undo.castlingRook);
+            undo.castlingRook.setMoved(undo.castlingRookHadMoved);
         }
-        // Copy all pieces
-        for (int rank = 1; rank <= 8; rank++) {
-            for (int file = 1; file <= 8; file++) {
-                Position pos = new Position(rank, file);
-                Piece piece = getPiece(pos);
-                if (piece != null) {
-                    newBoard.setPiece(pos, piece.copy());
-                }
-            }
+        if (undo.capturedPiece != null) {
+            setPiece(undo.capturedSquare, undo.capturedPiece);
         }
-        newBoard.currentTurn = this.currentTurn;
-        newBoard.enPassantTarget = this.enPassantTarget;
-        newBoard.whiteCanCastleKingside = this.whiteCanCastleKingside;
-        newBoard.whiteCanCastleQueenside = this.whiteCanCastleQueenside;
-        newBoard.blackCanCastleKingside = this.blackCanCastleKingside;
-        newBoard.blackCanCastleQueenside = this.blackCanCastleQueenside;
-        newBoard.halfMoveClock = this.halfMoveClock;
-        newBoard.fullMoveNumber = this.fullMoveNumber;
-        newBoard.positionHistory.addAll(this.positionHistory);
-        return newBoard;
+
+        currentTurn = piece.getColor();
+        castlingRights = undo.castlingRights;
+        enPassantSquare = undo.enPassantSquare;
+        halfMoveClock = undo.halfMoveClock;
+        fullMoveNumber = undo.fullMoveNumber;
+        zobristKey = undo.zobristKey;
+        enPassantKey = undo.enPassantKey;
+        keyHistoryCount--;
+
+        undo.movedPiece = null;
+        undo.capturedPiece = null;
+        undo.castlingRook = null;
     }
 
-    public String toFEN() {
-        StringBuilder fen = new StringBuilder();
-        
-        // Piece placement
-        for (int rank = 8; rank >= 1; rank--) {
-            int emptyCount = 0;
-            for (int file = 1; file <= 8; file++) {
-                Piece piece = getPiece(new Position(rank, file));
-                if (piece == null) {
-                    emptyCount++;
-                } else {
-                    if (emptyCount > 0) {
-                        fen.append(emptyCount);
-                        emptyCount = 0;
-                    }
-                    fen.append(piece.toFEN());
-                }
-            }
-            if (emptyCount > 0) {
-                fen.append(emptyCount);
-            }
-            if (rank > 1) {
-                fen.append("/");
-            }
+    private MoveUndo pushUndo() {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
         }
+        MoveUndo undo = undoStack[undoCount];
+        if (undo == null) {
+            undo = new MoveUndo();
+            undoStack[undoCount] = undo;
+        }
+        undoCount++;
+        return undo;
+    }
 
-        // Active color
-        fen.append(" ").append(currentTurn == Color.WHITE ? "w" : "b");
+    public Position findKing(Color color) {
+        int square = findKingSquare(color);
+        return square != NO_SQUARE ? Position.of(square) : null;
+    }
 
-        // Castling rights
-        fen.append(" ");
-        StringBuilder castling = new StringBuilder();
-        if (whiteCanCastleKingside) castling.append("K");
-        if (whiteCanCastleQueenside) castling.append("Q");
-        if (blackCanCastleKingside) castling.append("k");
-        if (blackCanCastleQueenside) castling.append("q");
-        fen.append(castling.length() > 0 ? castling.toString() : "-");
+    public int findKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
 
-        // En passant target
-        fen.append(" ").append(enPassantTarget != null ? enPassantTarget.toAlgebraic() : "-");
+    public List<Position> getAllPiecesPositions(Color color) {
+        long pieces = colorBitboards[color.ordinal()];
+        List<Position> positions = new ArrayList<>(Bitboards.count(pieces));
+        while (pieces != 0) {
+            positions.add(Bitboards.toPosition(Bitboards.lowestSquare(pieces)));
+            pieces &= pieces - 1;
+        }
+        return positions;
+    }
 
-        // Halfmove clock and fullmove number
-        fen.append(" ").append(halfMoveClock).append(" ").append(fullMoveNumber);
+    public long getZobristKey() {
+        return zobristKey;
+    }
 
-        return fen.toString();
+    // Records the key of a position reached before this board's current one (oldest first), for
+    // boards rebuilt from storage that should still see earlier repetitions
+    public void addToPositionHistory(long key) {
+        pushKeyHistory(key);
     }
 
-    public static Board fromFEN(String fen) {
-        Board board = new Board();
-        // Clear the board
-        for (int rank = 1; rank <= 8; rank++) {
-            for (int file = 1; file <= 8; file++) {
-                board.removePiece(new Position(rank, file));
+    // Occurrences of the current position, counting only same-side-to-move positions since the
+    // last capture or pawn move, as nothing earlier can repeat
+    public int countRepetitions() {
+        int count = 1;
+        int oldest = Math.max(0, keyHistoryCount - halfMoveClock);
+        for (int i = keyHistoryCount - 2; i >= oldest; i -= 2) {
+            if (keyHistory[i] == zobristKey) {
+                count++;
             }
         }
+        return count;
+    }
 
-        String[] parts = fen.trim().split("\\s+");
-        if (parts.length < 4) {
-            throw new IllegalArgumentException("Invalid FEN string");
+    private void pushKeyHistory(long key) {
+        if (keyHistoryCount == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
         }
+        keyHistory[keyHistoryCount++] = key;
+    }
 
-        // Parse piece placement
-        String[] ranks = parts[0].split("/");
-        for (int i = 0; i < ranks.length; i++) {
-            int rank = 8 - i;
-            int file = 1;
-            for (char c : ranks[i].toCharArray()) {
-                if (Character.isDigit(c)) {
-                    file += Character.getNumericValue(c);
-                } else {
-                    Piece piece = Piece.fromFEN(c);
-                    board.setPiece(new Position(rank, file), piece);
-                    file++;
-                }
-            }
+    // The en-passant file only enters the key when a pawn can actually make the capture, so
+    // positions that differ in nothing else compare equal for repetition
+    private void updateEnPassantKey() {
+        zobristKey ^= enPassantKey;
+        enPassantKey = 0L;
+        if (enPassantSquare != NO_SQUARE
+                && (Attacks.pawn(currentTurn.opposite(), enPassantSquare) & getPieces(PieceType.PAWN, currentTurn)) != 0) {
+            enPassantKey = Zobrist.enPassant(enPassantSquare);
         }
+        zobristKey ^= enPassantKey;
+    }
 
-        // Parse active color
-        board.currentTurn = parts[1].equals("w") ? Color.WHITE : Color.BLACK;
-
-        // Parse castling rights
-        board.whiteCanCastleKingside = parts[2].contains("K");
-        board.whiteCanCastleQueenside = parts[2].contains("Q");
-        board.blackCanCastleKingside = parts[2].contains("k");
-        board.blackCanCastleQueenside = parts[2].contains("q");
+    private long computeZobristKey() {
+        long key = Zobrist.castling(castlingRights);
+        long pieces = occupied;
+        while (pieces != 0) {
+            int square = Bitboards.lowestSquare(pieces);
+            pieces &= pieces - 1;
+            key ^= Zobrist.piece(squares[square].getType(), squares[square].getColor(), square);
+        }
+        if (currentTurn == Color.BLACK) {
+            key ^= Zobrist.sideToMove();
+        }
+        return key;
+    }
 
-        // Parse en passant target
-        if (!parts[3].equals("-")) {
-            board.enPassantTarget = Position.fromAlgebraic(parts[3]);
+    public Board copy() {
+        Board newBoard = new Board(false);
+        // Copy all pieces; bitboards are copied wholesale instead of rebuilt square by square
+        for (int square = 0; square < 64; square++) {
+            Piece piece = squares[square];
+            newBoard.squares[square] = piece != null ? piece.copy() : null;
         }
+        System.arraycopy(pieceBitboards, 0, newBoard.pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(colorBitboards, 0, newBoard.colorBitboards, 0, colorBitboards.length);
+        System.arraycopy(pieceCounts, 0, newBoard.pieceCounts, 0, pieceCounts.length);
+        System.arraycopy(kingSquares, 0, newBoard.kingSquares, 0, kingSquares.length);
+        System.arraycopy(material, 0, newBoard.material, 0, material.length);
+        newBoard.middlegameScore = this.middlegameScore;
+        newBoard.endgameScore = this.endgameScore;
+        newBoard.phase = this.phase;
+        newBoard.pawnKey = this.pawnKey;
+        newBoard.occupied = this.occupied;
+        newBoard.currentTurn = this.currentTurn;
+        newBoard.enPassantSquare = this.enPassantSquare;
+        newBoard.castlingRights = this.castlingRights;
+        newBoard.halfMoveClock = this.halfMoveClock;
+        newBoard.fullMoveNumber = this.fullMoveNumber;
+        newBoard.zobristKey = this.zobristKey;
+        newBoard.enPassantKey = this.enPassantKey;
+        newBoard.keyHistory = Arrays.copyOf(this.keyHistory, this.keyHistory.length);
+        newBoard.keyHistoryCount = this.keyHistoryCount;
+        return newBoard;
+    }
 
-        // Parse halfmove clock and fullmove number
-        if (parts.length >= 5) {
-            board.halfMoveClock = Integer.parseInt(parts[4]);
+    public String toFEN() {
+        return Fen.format(this);
+    }
+
+    public static Board fromFEN(String fen) {
+        Board board = new Board(false);
+        Fen.parse(fen, board);
+        return board;
+    }
+
+    // Empties the board and forgets its history, ready for Fen to place pieces square by square
+    void reset() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        Arrays.fill(pieceCounts, 0);
+        Arrays.fill(kingSquares, NO_SQUARE);
+        Arrays.fill(material, 0);
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        pawnKey = 0L;
+        occupied = 0L;
+        if (pieceListener != null) {
+            pieceListener.cleared();
         }
-        if (parts.length >= 6) {
-            board.fullMoveNumber = Integer.parseInt(parts[5]);
+        keyHistoryCount = 0;
+        while (undoCount > 0) {
+            MoveUndo undo = undoStack[--undoCount];
+            undo.movedPiece = null;
+            undo.capturedPiece = null;
+            undo.castlingRook = null;
         }
+    }
 
-        return board;
+    // Sets the non-placement state once the pieces are down and rebuilds the position key
+    void loadState(Color turn, int castling, int enPassant, int halfMoves, int fullMoves) {
+        currentTurn = turn;
+        castlingRights = castling;
+        enPassantSquare = enPassant;
+        halfMoveClock = halfMoves;
+        fullMoveNumber = fullMoves;
+        zobristKey = computeZobristKey();
+        enPassantKey = 0L;
+        updateEnPassantKey();
     }
 
     @Override
@@ -310,7 +656,7 @@ public class Board {
         for (int rank = 8; rank >= 1; rank--) {
             sb.append(rank).append(" ");
             for (int file = 1; file <= 8; file++) {
-                Piece piece = getPiece(new Position(rank, file));
+                Piece piece = squares[Bitboards.square(rank, file)];
                 if (piece == null) {
                     sb.append(". ");
                 } else {
@@ -0,0 +1,240 @@
+package com.example.IgKnight.chess.engine;
+
+// FEN reader and writer without intermediate strings. Parsing checks every field char by char
+// before touching the Board, then loads the pieces straight into it; writing appends to a
+// caller-supplied StringBuilder when one is reused.
+public final class Fen {
+
+    private static final String WHITE_PIECES = "PNBRQK";
+    private static final String BLACK_PIECES = "pnbrqk";
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // The largest clocks the packed position format can hold, far beyond anything a game reaches
+    private static final int MAX_HALF_MOVES = 255;
+    private static final int MAX_FULL_MOVES = 65535;
+
+    private Fen() {
+    }
+
+    public static Board parse(CharSequence fen) {
+        Board board = Board.empty();
+        parse(fen, board);
+        return board;
+    }
+
+    // Replaces whatever the board held, including its move history, with the given position. A
+    // malformed FEN throws before the board is changed, so a reused board keeps its position.
+    public static void parse(CharSequence fen, Board board) {
+        if (fen == null) {
+            throw new IllegalArgumentException("Invalid FEN string: null");
+        }
+        int length = fen.length();
+        int placement = skipSpaces(fen, 0);
+        int i = placement;
+
+        // Piece placement, from a8 across and down to h1; only checked here and placed at the end
+        int rank = 7;
+        int file = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw invalid(fen);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw invalid(fen);
+                }
+            } else {
+                if ((WHITE_PIECES.indexOf(c) < 0 && BLACK_PIECES.indexOf(c) < 0) || file > 7) {
+                    throw invalid(fen);
+                }
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw invalid(fen);
+        }
+
+        // Active color
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen);
+        }
+        Color turn;
+        switch (fen.charAt(i++)) {
+            case 'w' -> turn = Color.WHITE;
+            case 'b' -> turn = Color.BLACK;
+            default -> throw invalid(fen);
+        }
+
+        // Castling rights
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen);
+        }
+        int castling = 0;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                switch (fen.charAt(i)) {
+                    case 'K' -> castling |= Board.WHITE_KINGSIDE;
+                    case 'Q' -> castling |= Board.WHITE_QUEENSIDE;
+                    case 'k' -> castling |= Board.BLACK_KINGSIDE;
+                    case 'q' -> castling |= Board.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen);
+                }
+            }
+        }
+
+        // En passant target
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen);
+        }
+        int enPassant = Board.NO_SQUARE;
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            if (i + 1 >= length) {
+                throw invalid(fen);
+            }
+            char fileChar = fen.charAt(i);
+            char rankChar = fen.charAt(i + 1);
+            if (fileChar < 'a' || fileChar > 'h' || rankChar < '1' || rankChar > '8') {
+                throw invalid(fen);
+            }
+            enPassant = (rankChar - '1') * 8 + (fileChar - 'a');
+            i += 2;
+        }
+
+        // Halfmove clock and fullmove number are optional, but nothing may follow them
+        int halfMoves = 0;
+        int fullMoves = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                halfMoves = halfMoves * 10 + digit(fen, i);
+                if (halfMoves > MAX_HALF_MOVES) {
+                    throw invalid(fen);
+                }
+            }
+            i = skipSpaces(fen, i);
+            if (i < length) {
+                fullMoves = 0;
+                for (; i < length && fen.charAt(i) != ' '; i++) {
+                    fullMoves = fullMoves * 10 + digit(fen, i);
+                    if (fullMoves > MAX_FULL_MOVES) {
+                        throw invalid(fen);
+                    }
+                }
+                if (fullMoves < 1 || skipSpaces(fen, i) < length) {
+                    throw invalid(fen);
+                }
+            }
+        }
+
+        board.reset();
+        placePieces(fen, placement, board);
+        board.loadState(turn, castling, enPassant, halfMoves, fullMoves);
+    }
+
+    // Walks a placement field parse has already checked
+    private static void placePieces(CharSequence fen, int i, Board board) {
+        int square = 56;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                square -= 16;
+            } else if (c >= '1' && c <= '8') {
+                square += c - '0';
+            } else {
+                int white = WHITE_PIECES.indexOf(c);
+                Piece piece = white >= 0
+                        ? new Piece(PIECE_TYPES[white], Color.WHITE)
+                        : new Piece(PIECE_TYPES[BLACK_PIECES.indexOf(c)], Color.BLACK);
+                board.setPiece(square++, piece);
+            }
+        }
+    }
+
+    public static String format(Board board) {
+        return append(board, new StringBuilder(90)).toString();
+    }
+
+    public static StringBuilder append(Board board, StringBuilder fen) {
+        // Piece placement
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                Piece piece = board.getPiece(rank * 8 + file);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                String letters = piece.getColor() == Color.WHITE ? WHITE_PIECES : BLACK_PIECES;
+                fen.append(letters.charAt(piece.getType().ordinal()));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+
+        // Active color
+        fen.append(' ').append(board.getCurrentTurn() == Color.WHITE ? 'w' : 'b');
+
+        // Castling rights
+        fen.append(' ');
+        int castling = board.getCastlingRights();
+        if (castling == 0) {
+            fen.append('-');
+        } else {
+            if ((castling & Board.WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((castling & Board.WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((castling & Board.BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((castling & Board.BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+
+        // En passant target
+        fen.append(' ');
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant == Board.NO_SQUARE) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+
+        // Halfmove clock and fullmove number
+        fen.append(' ').append(board.getHalfMoveClock()).append(' ').append(board.getFullMoveNumber());
+        return fen;
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digit(CharSequence fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') {
+            throw invalid(fen);
+        }
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen) {
+        return new IllegalArgumentException("Invalid FEN string: " + fen);
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.IgKnight.chess.engine;
+
+import java.util.List;
+
+// Emits only legal moves. Checkers and pinned pieces are computed once per position, so no
+// move has to be played and re-tested for king safety.
+public final class LegalMoveGenerator {
+
+    private static final long ALL_SQUARES = -1L;
+
+    private LegalMoveGenerator() {
+    }
+
+    public static List<Move> generate(Board board) {
+        return generate(board, board.getCurrentTurn());
+    }
+
+    public static List<Move> generate(Board board, Color us) {
+        MoveList moves = new MoveList();
+        generate(board, us, ALL_SQUARES, moves);
+        return moves.toMoves();
+    }
+
+    public static List<Move> generateFrom(Board board, int fromSquare) {
+        Piece piece = board.getPiece(fromSquare);
+        if (piece == null) {
+            return List.of();
+        }
+        MoveList moves = new MoveList(32);
+        generate(board, piece.getColor(), Bitboards.bit(fromSquare), moves);
+        return moves.toMoves();
+    }
+
+    public static void generate(Board board, MoveList moves) {
+        moves.clear();
+        generate(board, board.getCurrentTurn(), ALL_SQUARES, moves);
+    }
+
+    public static void generate(Board board, Color us, long fromMask, MoveList moves) {
+        long kings = board.getPieces(PieceType.KING, us);
+        if (kings == 0) {
+            return;
+        }
+        Color them = us.opposite();
+        int kingSquare = Bitboards.lowestSquare(kings);
+        long occupied = board.getOccupied();
+        long own = board.getPieces(us);
+        long enemies = board.getPieces(them);
+
+        long checkers = board.attackersTo(kingSquare, them, occupied);
+
+        // King moves: test destinations with the king lifted off the board so it cannot hide
+        // behind itself on a checking ray
+        if ((fromMask & kings) != 0) {
+            long occupiedWithoutKing = occupied ^ kings;
+            long targets = Attacks.king(kingSquare) & ~own;
+            while (targets != 0) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                if (board.attackersTo(to, them, occupiedWithoutKing) == 0) {
+                    addMove(moves, kingSquare, to, (enemies & Bitboards.bit(to)) != 0);
+                }
+            }
+            if (checkers == 0) {
+                generateCastling(board, us, kingSquare, occupied, moves);
+            }
+        }
+
+        // In double check only the king can move
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        // Non-king moves must capture the checker or block its ray
+        long evasionMask = ALL_SQUARES;
+        if (checkers != 0) {
+            int checker = Bitboards.lowestSquare(checkers);
+            evasionMask = checkers | Attacks.between(kingSquare, checker);
+        }
+
+        long pinned = pinnedPieces(board, us, kingSquare, occupied, own);
+        long targetMask = ~own & evasionMask;
+
+        long pieces = own & ~kings & fromMask;
+        while (pieces != 0) {
+            int from = Bitboards.lowestSquare(pieces);
+            pieces &= pieces - 1;
+            Piece piece = board.getPiece(from);
+            long pinMask = (pinned & Bitboards.bit(from)) != 0 ? Attacks.line(kingSquare, from) : ALL_SQUARES;
+
+            if (piece.getType() == PieceType.PAWN) {
+                generatePawnMoves(board, us, from, kingSquare, occupied, enemies, evasionMask & pinMask, moves);
+                continue;
+            }
+
+            long attacks = switch (piece.getType()) {
+                case KNIGHT -> Attacks.knight(from);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case ROOK -> Attacks.rook(from, occupied);
+                case QUEEN -> Attacks.queen(from, occupied);
+                default -> 0L;
+            };
+            long targets = attacks & targetMask & pinMask;
+            while (targets != 0) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                addMove(moves, from, to, (enemies & Bitboards.bit(to)) != 0);
+            }
+        }
+    }
+
+    // Checks one submitted move for the side to move without generating any others: the move's
+    // geometry is tested against the attack tables, then the king is tested once against the
+    // occupancy the move leaves behind. Returns the move packed with its capture, castling and
+    // en passant flags, or PackedMove.NONE if it is illegal.
+    public static int legalMove(Board board, int from, int to, PieceType promotion) {
+        Piece piece = board.getPiece(from);
+        Color us = board.getCurrentTurn();
+        if (piece == null || piece.getColor() != us || from == to) {
+            return PackedMove.NONE;
+        }
+        Color them = us.opposite();
+        long occupied = board.getOccupied();
+        long own = board.getPieces(us);
+        long enemies = board.getPieces(them);
+        long toBit = Bitboards.bit(to);
+        if ((own & toBit) != 0) {
+            return PackedMove.NONE;
+        }
+        boolean capture = (enemies & toBit) != 0;
+        PieceType type = piece.getType();
+
+        if (type == PieceType.KING) {
+            if (promotion != null) {
+                return PackedMove.NONE;
+            }
+            if ((Attacks.king(from) & toBit) != 0) {
+                long occupiedWithoutKing = occupied ^ Bitboards.bit(from);
+                return board.attackersTo(to, them, occupiedWithoutKing) == 0
+                        ? PackedMove.encode(from, to, null, capture, false, false)
+                        : PackedMove.NONE;
+            }
+            return isLegalCastling(board, us, from, to, occupied)
+                    ? PackedMove.encode(from, to, null, false, true, false)
+                    : PackedMove.NONE;
+        }
+
+        int kingSquare = board.findKingSquare(us);
+        if (kingSquare == Board.NO_SQUARE) {
+            return PackedMove.NONE;
+        }
+
+        long capturedBit = capture ? toBit : 0L;
+        boolean enPassant = false;
+        if (type == PieceType.PAWN) {
+            int forward = us == Color.WHITE ? 8 : -8;
+            long startRank = us == Color.WHITE ? Bitboards.RANK_2 : Bitboards.RANK_7;
+            long promotionRank = us == Color.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+            boolean reachable;
+            if (to == from + forward) {
+                reachable = !capture;
+            } else if (to == from + 2 * forward) {
+                reachable = !capture && (startRank & Bitboards.bit(from)) != 0
+                        && (occupied & Bitboards.bit(from + forward)) == 0;
+            } else if ((Attacks.pawn(us, from) & toBit) != 0) {
+                enPassant = !capture && to == board.getEnPassantSquare();
+                reachable = capture || enPassant;
+                if (enPassant) {
+                    capturedBit = Bitboards.bit(to - forward);
+                }
+            } else {
+                reachable = false;
+            }
+            // A pawn reaching the last rank must name its promotion piece, and only then
+            boolean promotes = (promotionRank & toBit) != 0;
+            boolean validPromotion = promotes
+                    ? promotion != null && promotion != PieceType.PAWN && promotion != PieceType.KING
+                    : promotion == null;
+            if (!reachable || !validPromotion) {
+                return PackedMove.NONE;
+            }
+        } else {
+            long attacks = switch (type) {
+                case KNIGHT -> Attacks.knight(from);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case ROOK -> Attacks.rook(from, occupied);
+                case QUEEN -> Attacks.queen(from, occupied);
+                default -> 0L;
+            };
+            if (promotion != null || (attacks & toBit) == 0) {
+                return PackedMove.NONE;
+            }
+        }
+
+        // One king-safety test against the position after the move; the captured piece is masked
+        // out of the attackers since it is no longer on the board
+        long after = (occupied ^ Bitboards.bit(from) ^ capturedBit) | toBit;
+        if ((board.attackersTo(kingSquare, them, after) & ~capturedBit) != 0) {
+            return PackedMove.NONE;
+        }
+        return PackedMove.encode(from, to, promotion, capture || enPassant, false, enPassant);
+    }
+
+    private static boolean isLegalCastling(Board board, Color us, int from, int to, long occupied) {
+        int homeSquare = us == Color.WHITE ? Bitboards.square(1, 5) : Bitboards.square(8, 5);
+        if (from != homeSquare || (to != from + 2 && to != from - 2)) {
+            return false;
+        }
+        boolean kingside = to > from;
+        int rookSquare = kingside ? from + 3 : from - 4;
+        if (!(kingside ? board.canCastleKingside(us) : board.canCastleQueenside(us))
+                || (board.getPieces(PieceType.ROOK, us) & Bitboards.bit(rookSquare)) == 0
+                || (occupied & Attacks.between(from, rookSquare)) != 0) {
+            return false;
+        }
+        Color them = us.opposite();
+        int step = kingside ? 1 : -1;
+        return !board.isSquareAttacked(from, them)
+                && !board.isSquareAttacked(from + step, them)
+                && !board.isSquareAttacked(from + 2 * step, them);
+    }
+
+    // Stops at the first legal move found. King steps are tried first since they are the only
+    // candidates in double check and usually settle the question in quiet positions. Castling is
+    // never needed: if castling is legal, so is the king's one-square step toward the rook.
+    public static boolean hasAnyLegalMove(Board board, Color us) {
+        long kings = board.getPieces(PieceType.KING, us);
+        if (kings == 0) {
+            return false;
+        }
+        Color them = us.opposite();
+        int kingSquare = Bitboards.lowestSquare(kings);
+        long occupied = board.getOccupied();
+        long own = board.getPieces(us);
+        long enemies = board.getPieces(them);
+
+        long occupiedWithoutKing = occupied ^ kings;
+        long kingTargets = Attacks.king(kingSquare) & ~own;
+        while (kingTargets != 0) {
+            int to = Bitboards.lowestSquare(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (board.attackersTo(to, them, occupiedWithoutKing) == 0) {
+                return true;
+            }
+        }
+
+        long checkers = board.attackersTo(kingSquare, them, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return false;
+        }
+        long evasionMask = ALL_SQUARES;
+        if (checkers != 0) {
+            evasionMask = checkers | Attacks.between(kingSquare, Bitboards.lowestSquare(checkers));
+        }
+
+        long pinned = pinnedPieces(board, us, kingSquare, occupied, own);
+        long targetMask = ~own & evasionMask;
+        int forward = us == Color.WHITE ? 8 : -8;
+        long startRank = us == Color.WHITE ? Bitboards.RANK_2 : Bitboards.RANK_7;
+
+        long pieces = own & ~kings;
+        while (pieces != 0) {
+            int from = Bitboards.lowestSquare(pieces);
+            pieces &= pieces - 1;
+            long pinMask = (pinned & Bitboards.bit(from)) != 0 ? Attacks.line(kingSquare, from) : ALL_SQUARES;
+            long targets = switch (board.getPiece(from).getType()) {
+                case PAWN -> {
+                    long pawnTargets = Attacks.pawn(us, from) & enemies;
+                    long oneForward = Bitboards.bit(from + forward);
+                    if ((occupied & oneForward) == 0) {
+                        pawnTargets |= oneForward;
+                        long twoForward = Bitboards.bit(from + 2 * forward);
+                        if ((startRank & Bitboards.bit(from)) != 0 && (occupied & twoForward) == 0) {
+                            pawnTargets |= twoForward;
+                        }
+                    }
+                    yield pawnTargets;
+                }
+                case KNIGHT -> Attacks.knight(from);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case ROOK -> Attacks.rook(from, occupied);
+                case QUEEN -> Attacks.queen(from, occupied);
+                default -> 0L;
+            };
+            if ((targets & targetMask & pinMask) != 0) {
+                return true;
+            }
+        }
+
+        // En passant is rare enough to settle with the full generator's exact test
+        if (board.getEnPassantSquare() != Board.NO_SQUARE && us == board.getCurrentTurn()) {
+            long capturers = Attacks.pawn(them, board.getEnPassantSquare()) & board.getPieces(PieceType.PAWN, us);
+            if (capturers != 0) {
+                MoveList moves = new MoveList(4);
+                generate(board, us, capturers, moves);
+                return !moves.isEmpty();
+            }
+        }
+        return false;
+    }
+
+    // Own pieces standing alone between the king and an enemy slider on the same line
+    public static long pinnedPieces(Board board, Color us, int kingSquare, long occupied, long own) {
+        Color them = us.opposite();
+        long enemyQueens = board.getPieces(PieceType.QUEEN, them);
+        long snipers = (Attacks.rook(kingSquare, 0L) & (board.getPieces(PieceType.ROOK, them) | enemyQueens))
+                | (Attacks.bishop(kingSquare, 0L) & (board.getPieces(PieceType.BISHOP, them) | enemyQueens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Bitboards.lowestSquare(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static void generatePawnMoves(Board board, Color us, int from, int kingSquare, long occupied,
+                                          long enemies, long legalMask, MoveList moves) {
+        int forward = us == Color.WHITE ? 8 : -8;
+        long promotionRank = us == Color.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        long startRank = us == Color.WHITE ? Bitboards.RANK_2 : Bitboards.RANK_7;
+
+        int oneForward = from + forward;
+        if ((occupied & Bitboards.bit(oneForward)) == 0) {
+            if ((legalMask & Bitboards.bit(oneForward)) != 0) {
+                addPawnMove(moves, from, oneForward, false, (promotionRank & Bitboards.bit(oneForward)) != 0);
+            }
+            int twoForward = oneForward + forward;
+            if ((startRank & Bitboards.bit(from)) != 0
+                    && (occupied & Bitboards.bit(twoForward)) == 0
+                    && (legalMask & Bitboards.bit(twoForward)) != 0) {
+                addMove(moves, from, twoForward, false);
+            }
+        }
+
+        long captures = Attacks.pawn(us, from) & enemies & legalMask;
+        while (captures != 0) {
+            int to = Bitboards.lowestSquare(captures);
+            captures &= captures - 1;
+            addPawnMove(moves, from, to, true, (promotionRank & Bitboards.bit(to)) != 0);
+        }
+
+        // En passant removes two pawns from the board at once, which can uncover a check along the
+        // rank; replay the occupancy change and re-test the king instead of relying on pin masks
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant != Board.NO_SQUARE && us == board.getCurrentTurn()
+                && (Attacks.pawn(us, from) & Bitboards.bit(enPassant)) != 0) {
+            int capturedSquare = enPassant - forward;
+            long capturedBit = Bitboards.bit(capturedSquare);
+            long after = (occupied ^ Bitboards.bit(from) ^ capturedBit) | Bitboards.bit(enPassant);
+            if ((board.attackersTo(kingSquare, us.opposite(), after) & ~capturedBit) == 0) {
+                moves.add(PackedMove.encode(from, enPassant, null, true, false, true));
+            }
+        }
+    }
+
+    private static void generateCastling(Board board, Color us, int kingSquare, long occupied, MoveList moves) {
+        int homeSquare = us == Color.WHITE ? Bitboards.square(1, 5) : Bitboards.square(8, 5);
+        if (kingSquare != homeSquare) {
+            return;
+        }
+        Color them = us.opposite();
+        long rooks = board.getPieces(PieceType.ROOK, us);
+
+        if (board.canCastleKingside(us)
+                && (rooks & Bitboards.bit(kingSquare + 3)) != 0
+                && (occupied & Attacks.between(kingSquare, kingSquare + 3)) == 0
+                && !board.isSquareAttacked(kingSquare + 1, them)
+                && !board.isSquareAttacked(kingSquare + 2, them)) {
+            moves.add(PackedMove.encode(kingSquare, kingSquare + 2, null, false, true, false));
+        }
+
+        if (board.canCastleQueenside(us)
+                && (rooks & Bitboards.bit(kingSquare - 4)) != 0
+                && (occupied & Attacks.between(kingSquare, kingSquare - 4)) == 0
+                && !board.isSquareAttacked(kingSquare - 1, them)
+                && !board.isSquareAttacked(kingSquare - 2, them)) {
+            moves.add(PackedMove.encode(kingSquare, kingSquare - 2, null, false, true, false));
+        }
+    }
+
+    private static void addPawnMove(MoveList moves, int from, int to, boolean capture, boolean promotion) {
+        if (promotion) {
+            moves.add(PackedMove.encode(from, to, PieceType.QUEEN, capture, false, false));
+            moves.add(PackedMove.encode(from, to, PieceType.ROOK, capture, false, false));
+            moves.add(PackedMove.encode(from, to, PieceType.BISHOP, capture, false, false));
+            moves.add(PackedMove.encode(from, to, PieceType.KNIGHT, capture, false, false));
+        } else {
+            moves.add(PackedMove.encode(from, to, null, capture, false, false));
+        }
+    }
+
+    private static void addMove(MoveList moves, int from, int to, boolean capture) {
+        moves.add(PackedMove.encode(from, to, null, capture, false, false));
+    }
+}
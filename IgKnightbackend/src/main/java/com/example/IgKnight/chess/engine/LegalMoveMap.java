@@ -0,0 +1,107 @@
+package com.example.IgKnight.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable legal moves of one position, grouped by origin square so every square's moves
+// can be served from a single generation.
+public final class LegalMoveMap {
+
+    private final int[] moves;
+    // Moves from square s occupy moves[offsets[s]] up to moves[offsets[s + 1]]
+    private final int[] offsets;
+
+    private LegalMoveMap(int[] moves, int[] offsets) {
+        this.moves = moves;
+        this.offsets = offsets;
+    }
+
+    public static LegalMoveMap of(MoveList legalMoves) {
+        int[] offsets = new int[65];
+        for (int i = 0; i < legalMoves.size(); i++) {
+            offsets[PackedMove.from(legalMoves.get(i)) + 1]++;
+        }
+        for (int square = 0; square < 64; square++) {
+            offsets[square + 1] += offsets[square];
+        }
+        int[] next = new int[64];
+        System.arraycopy(offsets, 0, next, 0, 64);
+        int[] moves = new int[legalMoves.size()];
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            moves[next[PackedMove.from(move)]++] = move;
+        }
+        return new LegalMoveMap(moves, offsets);
+    }
+
+    public static LegalMoveMap of(Board board) {
+        MoveList legalMoves = new MoveList();
+        LegalMoveGenerator.generate(board, legalMoves);
+        return of(legalMoves);
+    }
+
+    public int size() {
+        return moves.length;
+    }
+
+    public boolean isEmpty() {
+        return moves.length == 0;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int countFrom(int from) {
+        return offsets[from + 1] - offsets[from];
+    }
+
+    // Squares holding a piece with at least one legal move
+    public long getOrigins() {
+        long origins = 0L;
+        for (int square = 0; square < 64; square++) {
+            if (offsets[square + 1] > offsets[square]) {
+                origins |= Bitboards.bit(square);
+            }
+        }
+        return origins;
+    }
+
+    public long getDestinations(int from) {
+        long destinations = 0L;
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            destinations |= Bitboards.bit(PackedMove.to(moves[i]));
+        }
+        return destinations;
+    }
+
+    // Destinations from this square that are promotions and need a piece choice
+    public long getPromotionDestinations(int from) {
+        long destinations = 0L;
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            if (PackedMove.isPromotion(moves[i])) {
+                destinations |= Bitboards.bit(PackedMove.to(moves[i]));
+            }
+        }
+        return destinations;
+    }
+
+    public List<Move> getMoves(int from) {
+        List<Move> result = new ArrayList<>(countFrom(from));
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            result.add(PackedMove.toMove(moves[i]));
+        }
+        return result;
+    }
+
+    // The flagged legal move matching from, to and promotion, or PackedMove.NONE
+    public int find(int from, int to, PieceType promotion) {
+        int wanted = PackedMove.encode(from, to, promotion, false, false, false);
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            if (PackedMove.sameMove(moves[i], wanted)) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
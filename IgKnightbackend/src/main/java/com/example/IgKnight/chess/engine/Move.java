@@ -35,6 +35,14 @@ public class Move {
         return to;
     }
 
+    public int getFromSquare() {
+        return from.getIndex();
+    }
+
+    public int getToSquare() {
+        return to.getIndex();
+    }
+
     public PieceType getPromotionPiece() {
         return promotionPiece;
     }
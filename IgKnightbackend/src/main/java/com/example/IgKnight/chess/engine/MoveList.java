@@ -0,0 +1,85 @@
+package com.example.IgKnight.chess.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reusable buffer of packed moves. Generators append into it, so one instance per search ply
+// can be cleared and refilled without allocating.
+public final class MoveList {
+
+    // No legal chess position has more than 218 moves
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.sameMove(moves[i], move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The flagged move matching from, to and promotion, or PackedMove.NONE
+    public int find(int from, int to, PieceType promotion) {
+        int wanted = PackedMove.encode(from, to, promotion, false, false, false);
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.sameMove(moves[i], wanted)) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    public List<Move> toMoves() {
+        List<Move> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(PackedMove.toMove(moves[i]));
+        }
+        return result;
+    }
+}
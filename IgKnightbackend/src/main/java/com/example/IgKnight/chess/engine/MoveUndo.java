@@ -0,0 +1,21 @@
+package com.example.IgKnight.chess.engine;
+
+// Everything Board.unmakeMove needs to restore the position; instances are pooled per board
+final class MoveUndo {
+    int from;
+    int to;
+    Piece movedPiece;
+    boolean movedPieceHadMoved;
+    Piece capturedPiece;
+    int capturedSquare;
+    Piece castlingRook;
+    boolean castlingRookHadMoved;
+    int rookFrom;
+    int rookTo;
+    int castlingRights;
+    int enPassantSquare;
+    int halfMoveClock;
+    int fullMoveNumber;
+    long zobristKey;
+    long enPassantKey;
+}
@@ -0,0 +1,97 @@
+package com.example.IgKnight.chess.engine;
+
+// A move packed into an int so generators can fill plain int buffers:
+//   bits 0-5   from square
+//   bits 6-11  to square
+//   bits 12-14 promotion piece (PieceType ordinal, 0 = none since pawns never promote to pawns)
+//   bit  15    capture
+//   bit  16    castling
+//   bit  17    en passant
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final int CAPTURE = 1 << 15;
+    private static final int CASTLING = 1 << 16;
+    private static final int EN_PASSANT = 1 << 17;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    public static int encode(int from, int to, PieceType promotion, boolean capture, boolean castling, boolean enPassant) {
+        int move = from | (to << TO_SHIFT);
+        if (promotion != null) {
+            move |= promotion.ordinal() << PROMOTION_SHIFT;
+        }
+        if (capture) {
+            move |= CAPTURE;
+        }
+        if (castling) {
+            move |= CASTLING;
+        }
+        if (enPassant) {
+            move |= EN_PASSANT;
+        }
+        return move;
+    }
+
+    public static int encode(Move move) {
+        return encode(move.getFromSquare(), move.getToSquare(), move.getPromotionPiece(),
+                move.isCapture(), move.isCastling(), move.isEnPassant());
+    }
+
+    public static Move toMove(int move) {
+        return new Move(Position.of(from(move)), Position.of(to(move)), promotion(move),
+                isCapture(move), isCastling(move), isEnPassant(move));
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static PieceType promotion(int move) {
+        int code = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return code != 0 ? PIECE_TYPES[code] : null;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    // Same squares and promotion piece, ignoring the capture, castling and en passant flags
+    public static boolean sameMove(int a, int b) {
+        return (a & 0x7FFF) == (b & 0x7FFF);
+    }
+
+    public static String toAlgebraic(int move) {
+        PieceType promotion = promotion(move);
+        return Position.of(from(move)).toAlgebraic() + Position.of(to(move)).toAlgebraic()
+                + (promotion != null ? promotion.getNotation().toLowerCase() : "");
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.IgKnight.chess.engine;
+
+import java.util.Arrays;
+
+// A position packed into 32 bytes for storage and transport, round-tripping exactly what FEN holds:
+//   bytes 0-7    occupancy bitboard, big-endian
+//   bytes 8-23   one nibble per occupied square in ascending square order, high nibble first
+//                (color * 6 + PieceType ordinal, the Bitboards.pieceIndex layout)
+//   byte  24     state: bit 0 black to move, bits 1-4 castling rights
+//   byte  25     en passant square, 0xFF when there is none
+//   byte  26     halfmove clock
+//   bytes 27-28  fullmove number, big-endian
+//   bytes 29-31  unused, zero
+public final class PackedPosition {
+
+    public static final int BYTES = 32;
+
+    private static final int PIECES_OFFSET = 8;
+    private static final int MAX_PIECES = 32;
+    private static final int STATE_OFFSET = 24;
+    private static final int EN_PASSANT_OFFSET = 25;
+    private static final int HALF_MOVE_OFFSET = 26;
+    private static final int FULL_MOVE_OFFSET = 27;
+    private static final int NO_EN_PASSANT = 0xFF;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+
+    private PackedPosition() {
+    }
+
+    public static byte[] encode(Board board) {
+        byte[] data = new byte[BYTES];
+        encode(board, data, 0);
+        return data;
+    }
+
+    public static void encode(Board board, byte[] data, int offset) {
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Position has more than " + MAX_PIECES + " pieces");
+        }
+        int halfMoves = board.getHalfMoveClock();
+        int fullMoves = board.getFullMoveNumber();
+        if (halfMoves < 0 || halfMoves > 0xFF || fullMoves < 0 || fullMoves > 0xFFFF) {
+            throw new IllegalArgumentException("Move counters out of range: " + halfMoves + " " + fullMoves);
+        }
+
+        Arrays.fill(data, offset, offset + BYTES, (byte) 0);
+        for (int i = 0; i < 8; i++) {
+            data[offset + i] = (byte) (occupied >>> (56 - 8 * i));
+        }
+        int nibble = 0;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            Piece piece = board.getPiece(Long.numberOfTrailingZeros(remaining));
+            int code = Bitboards.pieceIndex(piece.getType(), piece.getColor());
+            int index = offset + PIECES_OFFSET + (nibble >>> 1);
+            data[index] |= (byte) ((nibble & 1) == 0 ? code << 4 : code);
+            nibble++;
+        }
+
+        int state = board.getCurrentTurn() == Color.BLACK ? 1 : 0;
+        data[offset + STATE_OFFSET] = (byte) (state | board.getCastlingRights() << 1);
+        int enPassant = board.getEnPassantSquare();
+        data[offset + EN_PASSANT_OFFSET] = (byte) (enPassant == Board.NO_SQUARE ? NO_EN_PASSANT : enPassant);
+        data[offset + HALF_MOVE_OFFSET] = (byte) halfMoves;
+        data[offset + FULL_MOVE_OFFSET] = (byte) (fullMoves >>> 8);
+        data[offset + FULL_MOVE_OFFSET + 1] = (byte) fullMoves;
+    }
+
+    public static Board decode(byte[] data) {
+        Board board = Board.empty();
+        decode(data, 0, board);
+        return board;
+    }
+
+    // Replaces whatever the board held, including its move history, with the decoded position
+    public static void decode(byte[] data, int offset, Board board) {
+        if (data == null || offset < 0 || data.length - offset < BYTES) {
+            throw new IllegalArgumentException("Invalid packed position: expected " + BYTES + " bytes");
+        }
+        long occupied = 0L;
+        for (int i = 0; i < 8; i++) {
+            occupied = (occupied << 8) | (data[offset + i] & 0xFF);
+        }
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Invalid packed position: more than " + MAX_PIECES + " pieces");
+        }
+
+        board.reset();
+        int nibble = 0;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            int packed = data[offset + PIECES_OFFSET + (nibble >>> 1)];
+            int code = ((nibble & 1) == 0 ? packed >>> 4 : packed) & 0xF;
+            if (code >= 12) {
+                throw new IllegalArgumentException("Invalid packed position: piece code " + code);
+            }
+            board.setPiece(Long.numberOfTrailingZeros(remaining), new Piece(PIECE_TYPES[code % 6], COLORS[code / 6]));
+            nibble++;
+        }
+
+        int state = data[offset + STATE_OFFSET] & 0xFF;
+        int enPassant = data[offset + EN_PASSANT_OFFSET] & 0xFF;
+        if (enPassant != NO_EN_PASSANT && enPassant >= 64) {
+            throw new IllegalArgumentException("Invalid packed position: en passant square " + enPassant);
+        }
+        int halfMoves = data[offset + HALF_MOVE_OFFSET] & 0xFF;
+        int fullMoves = (data[offset + FULL_MOVE_OFFSET] & 0xFF) << 8 | (data[offset + FULL_MOVE_OFFSET + 1] & 0xFF);
+        board.loadState((state & 1) == 0 ? Color.WHITE : Color.BLACK, (state >>> 1) & 0xF,
+                enPassant == NO_EN_PASSANT ? Board.NO_SQUARE : enPassant, halfMoves, fullMoves);
+    }
+}
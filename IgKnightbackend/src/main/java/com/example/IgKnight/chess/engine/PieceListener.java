@@ -0,0 +1,14 @@
+package com.example.IgKnight.chess.engine;
+
+// Told by Board about every piece it places or lifts, unmakeMove included, so state derived from
+// the placement (such as a neural network accumulator) can follow the position incrementally.
+// Pieces are identified by Bitboards.pieceIndex.
+public interface PieceListener {
+
+    void pieceAdded(int pieceIndex, int square);
+
+    void pieceRemoved(int pieceIndex, int square);
+
+    // The board was emptied to load another position
+    void cleared();
+}
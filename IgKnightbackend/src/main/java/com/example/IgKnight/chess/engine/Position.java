@@ -1,17 +1,37 @@
 package com.example.IgKnight.chess.engine;
 
-import java.util.Objects;
-
 public class Position {
+    // The 64 squares are shared, immutable instances indexed a1 = 0 ... h8 = 63
+    private static final Position[] SQUARES = new Position[64];
+
+    static {
+        for (int index = 0; index < 64; index++) {
+            SQUARES[index] = new Position(index);
+        }
+    }
+
+    private final int index;
     private final int rank; // 1-8
     private final int file; // 1-8 (a-h)
 
-    public Position(int rank, int file) {
+    private Position(int index) {
+        this.index = index;
+        this.rank = (index >>> 3) + 1;
+        this.file = (index & 7) + 1;
+    }
+
+    public static Position of(int index) {
+        if (index < 0 || index > 63) {
+            throw new IllegalArgumentException("Invalid square index: " + index);
+        }
+        return SQUARES[index];
+    }
+
+    public static Position of(int rank, int file) {
         if (rank < 1 || rank > 8 || file < 1 || file > 8) {
             throw new IllegalArgumentException("Invalid position: rank=" + rank + ", file=" + file);
         }
-        this.rank = rank;
-        this.file = file;
+        return SQUARES[(rank - 1) * 8 + (file - 1)];
     }
 
     public static Position fromAlgebraic(String notation) {
@@ -27,7 +47,7 @@ public class Position {
         
         int file = fileChar - 'a' + 1;
         int rank = rankChar - '0';
-        return new Position(rank, file);
+        return SQUARES[(rank - 1) * 8 + (file - 1)];
     }
 
     public String toAlgebraic() {
@@ -35,6 +55,10 @@ public class Position {
         return "" + fileChar + rank;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     public int getRank() {
         return rank;
     }
@@ -53,7 +77,7 @@ public class Position {
         if (newRank < 1 || newRank > 8 || newFile < 1 || newFile > 8) {
             return null;
         }
-        return new Position(newRank, newFile);
+        return SQUARES[(newRank - 1) * 8 + (newFile - 1)];
     }
 
     @Override
@@ -61,12 +85,12 @@ public class Position {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Position position = (Position) o;
-        return rank == position.rank && file == position.file;
+        return index == position.index;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(rank, file);
+        return index;
     }
 
     @Override
@@ -0,0 +1,90 @@
+package com.example.IgKnight.chess.engine;
+
+// Everything the game flow needs to know about a position, computed together in one pass
+public class PositionAnalysis {
+    private final Color sideToMove;
+    private final boolean inCheck;
+    private final boolean hasLegalMoves;
+    private final MoveList legalMoves;
+    private final boolean fiftyMoveRule;
+    private final boolean threefoldRepetition;
+    private final boolean insufficientMaterial;
+    private final GameStatus status;
+
+    // legalMoves may be null when only the existence of a legal move was established
+    public PositionAnalysis(Color sideToMove, boolean inCheck, boolean hasLegalMoves, MoveList legalMoves,
+                            boolean fiftyMoveRule, boolean threefoldRepetition, boolean insufficientMaterial) {
+        this.sideToMove = sideToMove;
+        this.inCheck = inCheck;
+        this.hasLegalMoves = hasLegalMoves;
+        this.legalMoves = legalMoves;
+        this.fiftyMoveRule = fiftyMoveRule;
+        this.threefoldRepetition = threefoldRepetition;
+        this.insufficientMaterial = insufficientMaterial;
+
+        // Same precedence as the individual checks: mate and stalemate first, then draws
+        if (!hasLegalMoves) {
+            this.status = inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        } else if (fiftyMoveRule) {
+            this.status = GameStatus.DRAW_FIFTY_MOVE;
+        } else if (threefoldRepetition) {
+            this.status = GameStatus.DRAW_REPETITION;
+        } else if (insufficientMaterial) {
+            this.status = GameStatus.DRAW_INSUFFICIENT_MATERIAL;
+        } else {
+            this.status = GameStatus.IN_PROGRESS;
+        }
+    }
+
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public boolean hasLegalMoves() {
+        return hasLegalMoves;
+    }
+
+    public boolean hasLegalMoveList() {
+        return legalMoves != null;
+    }
+
+    public int getLegalMoveCount() {
+        return getLegalMoves().size();
+    }
+
+    // Packed legal moves for the side to move; callers must not modify the list
+    public MoveList getLegalMoves() {
+        if (legalMoves == null) {
+            throw new IllegalStateException("Legal moves were not generated for this analysis");
+        }
+        return legalMoves;
+    }
+
+    public boolean isCheckmate() {
+        return status == GameStatus.CHECKMATE;
+    }
+
+    public boolean isStalemate() {
+        return status == GameStatus.STALEMATE;
+    }
+
+    public boolean isDrawByFiftyMoveRule() {
+        return fiftyMoveRule;
+    }
+
+    public boolean isDrawByThreefoldRepetition() {
+        return threefoldRepetition;
+    }
+
+    public boolean isDrawByInsufficientMaterial() {
+        return insufficientMaterial;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.IgKnight.chess.engine;
+
+// Standard Algebraic Notation. Both directions work from the legal moves already generated for
+// the position: disambiguation asks which other pieces of the same type reach the destination,
+// and parsing picks the single legal move matching the notation.
+public final class San {
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private San() {
+    }
+
+    @FunctionalInterface
+    private interface MoveFinder {
+        int find(int from, int to, PieceType promotion);
+    }
+
+    public static String format(Board board, int move, MoveList legalMoves) {
+        return format(board, move, legalMoves::find);
+    }
+
+    public static String format(Board board, int move, LegalMoveMap legalMoves) {
+        return format(board, move, legalMoves::find);
+    }
+
+    public static String format(Board board, int move) {
+        return format(board, move, LegalMoveMap.of(board));
+    }
+
+    public static int parse(Board board, CharSequence san, MoveList legalMoves) {
+        return parse(board, san, legalMoves::find);
+    }
+
+    public static int parse(Board board, CharSequence san, LegalMoveMap legalMoves) {
+        return parse(board, san, legalMoves::find);
+    }
+
+    public static Move parseMove(Board board, CharSequence san) {
+        return PackedMove.toMove(parse(board, san, LegalMoveMap.of(board)));
+    }
+
+    // Formats a legal move of the side to move. The board is left as it was; the move is played
+    // and taken back once to find the check or mate suffix.
+    private static String format(Board board, int move, MoveFinder legalMoves) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = board.getPiece(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece on " + Position.of(from));
+        }
+        PieceType type = piece.getType();
+        StringBuilder san = new StringBuilder(8);
+
+        if (PackedMove.isCastling(move) || (type == PieceType.KING && Math.abs(to - from) == 2)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = PackedMove.isCapture(move) || board.getPiece(to) != null;
+            if (type == PieceType.PAWN) {
+                if (capture || (from & 7) != (to & 7)) {
+                    san.append(fileChar(from)).append('x');
+                }
+            } else {
+                san.append(PIECE_LETTERS.charAt(type.ordinal()));
+                appendDisambiguation(san, board, piece, from, to, legalMoves);
+                if (capture) {
+                    san.append('x');
+                }
+            }
+            san.append(fileChar(to)).append(rankChar(to));
+            PieceType promotion = PackedMove.promotion(move);
+            if (promotion != null) {
+                san.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        }
+
+        board.makeMove(move);
+        try {
+            Color defender = board.getCurrentTurn();
+            int king = board.findKingSquare(defender);
+            if (king != Board.NO_SQUARE && board.isSquareAttacked(king, defender.opposite())) {
+                san.append(LegalMoveGenerator.hasAnyLegalMove(board, defender) ? '+' : '#');
+            }
+        } finally {
+            board.unmakeMove();
+        }
+        return san.toString();
+    }
+
+    // File if that separates the candidates, else rank, else the full square
+    private static void appendDisambiguation(StringBuilder san, Board board, Piece piece, int from, int to,
+                                             MoveFinder legalMoves) {
+        long others = board.getPieces(piece.getType(), piece.getColor()) & ~Bitboards.bit(from);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (; others != 0; others &= others - 1) {
+            int other = Bitboards.lowestSquare(others);
+            if (legalMoves.find(other, to, null) != PackedMove.NONE) {
+                ambiguous = true;
+                sameFile |= (other & 7) == (from & 7);
+                sameRank |= (other >>> 3) == (from >>> 3);
+            }
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(fileChar(from));
+        } else if (!sameRank) {
+            san.append(rankChar(from));
+        } else {
+            san.append(fileChar(from)).append(rankChar(from));
+        }
+    }
+
+    private static int parse(Board board, CharSequence san, MoveFinder legalMoves) {
+        if (san == null) {
+            throw new IllegalArgumentException("Invalid SAN move: null");
+        }
+        int start = 0;
+        int end = san.length();
+        while (start < end && san.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && "+#!? ".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end - start < 2) {
+            throw invalid(san);
+        }
+        Color us = board.getCurrentTurn();
+
+        char first = san.charAt(start);
+        if (first == 'O' || first == '0') {
+            int king = board.findKingSquare(us);
+            int length = end - start;
+            int to;
+            if (length == 5 && matchesCastling(san, start, first, 3)) {
+                to = king - 2;
+            } else if (length == 3 && matchesCastling(san, start, first, 2)) {
+                to = king + 2;
+            } else {
+                throw invalid(san);
+            }
+            int move = king != Board.NO_SQUARE ? legalMoves.find(king, to, null) : PackedMove.NONE;
+            if (move == PackedMove.NONE) {
+                throw illegal(san);
+            }
+            return move;
+        }
+
+        PieceType type = PieceType.PAWN;
+        int pieceIndex = PIECE_LETTERS.indexOf(first);
+        if (pieceIndex >= 0) {
+            type = PIECE_TYPES[pieceIndex];
+            start++;
+        }
+
+        PieceType promotion = null;
+        int promotionIndex = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+        if (type == PieceType.PAWN && promotionIndex > 0) {
+            promotion = PIECE_TYPES[promotionIndex];
+            end--;
+            if (end > start && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        if (end - start < 2) {
+            throw invalid(san);
+        }
+        char toFile = san.charAt(end - 2);
+        char toRank = san.charAt(end - 1);
+        if (toFile < 'a' || toFile > 'h' || toRank < '1' || toRank > '8') {
+            throw invalid(san);
+        }
+        int to = (toRank - '1') * 8 + (toFile - 'a');
+        end -= 2;
+
+        // Whatever is left is disambiguation, a capture mark or a long-algebraic dash
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san);
+            }
+        }
+
+        int match = PackedMove.NONE;
+        for (long candidates = board.getPieces(type, us); candidates != 0; candidates &= candidates - 1) {
+            int from = Bitboards.lowestSquare(candidates);
+            if ((fromFile >= 0 && (from & 7) != fromFile) || (fromRank >= 0 && (from >>> 3) != fromRank)) {
+                continue;
+            }
+            int move = legalMoves.find(from, to, promotion);
+            if (move != PackedMove.NONE) {
+                if (match != PackedMove.NONE) {
+                    throw new IllegalArgumentException("Ambiguous SAN move: " + san);
+                }
+                match = move;
+            }
+        }
+        if (match == PackedMove.NONE) {
+            throw illegal(san);
+        }
+        return match;
+    }
+
+    private static boolean matchesCastling(CharSequence san, int start, char letter, int letters) {
+        for (int i = 0; i < letters; i++) {
+            if (san.charAt(start + 2 * i) != letter || (i > 0 && san.charAt(start + 2 * i - 1) != '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fileChar(int square) {
+        return (char) ('a' + (square & 7));
+    }
+
+    private static char rankChar(int square) {
+        return (char) ('1' + (square >>> 3));
+    }
+
+    private static IllegalArgumentException invalid(CharSequence san) {
+        return new IllegalArgumentException("Invalid SAN move: " + san);
+    }
+
+    private static IllegalArgumentException illegal(CharSequence san) {
+        return new IllegalArgumentException("Illegal SAN move: " + san);
+    }
+}
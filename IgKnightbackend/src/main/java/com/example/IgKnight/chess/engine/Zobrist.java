@@ -0,0 +1,70 @@
+package com.example.IgKnight.chess.engine;
+
+// Random 64-bit keys whose XOR identifies a position. Board keeps its key up to date as pieces
+// move, so hashing a position never needs a full scan or any string building.
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        // Fixed seed so keys, and anything persisted from them, are stable across restarts
+        long seed = 0x1F2E3D4C5B6A7988L;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                seed = next(seed);
+                PIECE_SQUARE[piece][square] = mix(seed);
+            }
+        }
+        long[] castlingRightKeys = new long[4];
+        for (int i = 0; i < 4; i++) {
+            seed = next(seed);
+            castlingRightKeys[i] = mix(seed);
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            for (int i = 0; i < 4; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING[rights] ^= castlingRightKeys[i];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = next(seed);
+            EN_PASSANT_FILE[file] = mix(seed);
+        }
+        seed = next(seed);
+        SIDE_TO_MOVE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(PieceType type, Color color, int square) {
+        return PIECE_SQUARE[Bitboards.pieceIndex(type, color)][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return EN_PASSANT_FILE[square & 7];
+    }
+
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.IgKnight.chess.engine.book;
+
+// A legal move found in an opening book, with its weight relative to the position's other moves
+public final class BookMove {
+
+    private final int move;
+    private final int weight;
+
+    public BookMove(int move, int weight) {
+        this.move = move;
+        this.weight = weight;
+    }
+
+    // PackedMove, as generated for the position
+    public int getMove() {
+        return move;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.IgKnight.chess.engine.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+
+// A Polyglot .bin opening book read straight from a read-only memory mapping: 16-byte big-endian
+// entries of key, move, weight and learn data, sorted by key. Lookups binary-search the mapping
+// with absolute reads only, so any number of threads can share one instance and nothing is ever
+// copied onto the heap; the page cache holds the book once however many games use it.
+public final class PolyglotBook {
+
+    public static final int ENTRY_BYTES = 16;
+
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    private final ByteBuffer entries;
+    private final int count;
+
+    private PolyglotBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.count = entries.capacity() / ENTRY_BYTES;
+    }
+
+    public static PolyglotBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_BYTES != 0 || size / ENTRY_BYTES > Integer.MAX_VALUE / ENTRY_BYTES) {
+                throw new IllegalArgumentException("Not a Polyglot book: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // The book's moves for this position that are legal here, heaviest first as stored
+    public List<BookMove> lookup(Board board) {
+        long key = PolyglotKey.of(board);
+        int index = firstIndexOf(key);
+        if (index == count || keyAt(index) != key) {
+            return List.of();
+        }
+        MoveList legal = new MoveList();
+        LegalMoveGenerator.generate(board, legal);
+        List<BookMove> moves = new ArrayList<>();
+        for (; index < count && keyAt(index) == key; index++) {
+            int weight = Short.toUnsignedInt(entries.getShort(index * ENTRY_BYTES + WEIGHT_OFFSET));
+            int move = toLegalMove(Short.toUnsignedInt(entries.getShort(index * ENTRY_BYTES + MOVE_OFFSET)), legal);
+            if (move != PackedMove.NONE && weight > 0) {
+                moves.add(new BookMove(move, weight));
+            }
+        }
+        return moves;
+    }
+
+    // A book move chosen with probability proportional to its weight, or PackedMove.NONE
+    public int pickMove(Board board) {
+        List<BookMove> moves = lookup(board);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.getWeight();
+        }
+        if (total == 0) {
+            return PackedMove.NONE;
+        }
+        int target = ThreadLocalRandom.current().nextInt(total);
+        for (BookMove move : moves) {
+            target -= move.getWeight();
+            if (target < 0) {
+                return move.getMove();
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    // The heaviest book move, or PackedMove.NONE
+    public int bestMove(Board board) {
+        int best = PackedMove.NONE;
+        int bestWeight = 0;
+        for (BookMove move : lookup(board)) {
+            if (move.getWeight() > bestWeight) {
+                best = move.getMove();
+                bestWeight = move.getWeight();
+            }
+        }
+        return best;
+    }
+
+    // Polyglot moves use the same from/to square numbering as PackedMove, and the same promotion
+    // codes for knight to queen, but castling is written as the king taking its own rook
+    public static int encodeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.isCastling(move)) {
+            to = to > from ? from + 3 : from - 4;
+        }
+        int promotion = PackedMove.isPromotion(move) ? PackedMove.promotion(move).ordinal() : 0;
+        return to | from << 6 | promotion << 12;
+    }
+
+    private static int toLegalMove(int bookMove, MoveList legal) {
+        for (int i = 0; i < legal.size(); i++) {
+            if (encodeMove(legal.get(i)) == bookMove) {
+                return legal.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    // Keys are unsigned 64-bit values
+    private int firstIndexOf(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.IgKnight.chess.engine.book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.IgKnight.chess.engine.Board;
+
+// Collects weighted moves per position and writes them as a Polyglot book
+public final class PolyglotBookWriter {
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    // Position key to Polyglot move to accumulated weight
+    private final Map<Long, Map<Integer, Long>> positions = new HashMap<>();
+
+    // move is a PackedMove legal in this position
+    public void add(Board board, int move, int weight) {
+        positions.computeIfAbsent(PolyglotKey.of(board), key -> new HashMap<>())
+                .merge(PolyglotBook.encodeMove(move), (long) weight, Long::sum);
+    }
+
+    public int positionCount() {
+        return positions.size();
+    }
+
+    // Writes to a temporary file first and moves it into place, so books already mapped from the
+    // old file keep reading the old contents instead of a half-written or truncated one
+    public void write(Path path) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compareUnsigned);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        // DataOutputStream writes big-endian, as the format requires
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            for (long key : keys) {
+                Map<Integer, Long> moves = positions.get(key);
+                long heaviest = 0;
+                for (long weight : moves.values()) {
+                    heaviest = Math.max(heaviest, weight);
+                }
+                // Weights are 16-bit, so a position's moves are scaled down together if needed
+                long divisor = Math.max(1, (heaviest + MAX_WEIGHT - 1) / MAX_WEIGHT);
+                List<Map.Entry<Integer, Long>> sorted = new ArrayList<>(moves.entrySet());
+                sorted.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+                for (Map.Entry<Integer, Long> move : sorted) {
+                    int weight = (int) (move.getValue() / divisor);
+                    if (weight == 0) {
+                        continue;
+                    }
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort(weight);
+                    out.writeInt(0);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import com.example.IgKnight.chess.engine.Bitboards;
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.PieceListener;
+import com.example.IgKnight.chess.engine.PieceType;
+
+// First-layer sums of one board for both perspectives, kept current by listening to the board's
+// piece changes: a move adds and subtracts a few weight columns instead of summing all ~30 active
+// features again, and unmakeMove reverses it the same way. Every feature depends on its side's king
+// square, so a king move marks that side stale and it is rebuilt from the board when next needed.
+// Belongs to a single board, and so to a single thread.
+public final class Accumulator implements PieceListener {
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+    private static final int KING = PieceType.KING.ordinal();
+
+    private final NnueNetwork network;
+    private final Kernels kernels;
+    private final Board board;
+    private final short[][] values;
+    private final int[] kingSquares = {Board.NO_SQUARE, Board.NO_SQUARE};
+    private final boolean[] stale = {true, true};
+
+    // Scratch space for the dense layers, kept here so evaluation allocates nothing
+    final int[] input;
+    final int[] l1Output;
+    final int[] l2Output;
+
+    Accumulator(NnueNetwork network, Kernels kernels, Board board) {
+        this.network = network;
+        this.kernels = kernels;
+        this.board = board;
+        this.values = new short[2][network.hiddenSize];
+        this.input = new int[2 * network.hiddenSize];
+        this.l1Output = new int[network.l1Size];
+        this.l2Output = new int[network.l2Size];
+    }
+
+    NnueNetwork getNetwork() {
+        return network;
+    }
+
+    @Override
+    public void pieceAdded(int pieceIndex, int square) {
+        if (pieceIndex % 6 == KING) {
+            int side = pieceIndex / 6;
+            kingSquares[side] = square;
+            stale[side] = true;
+            return;
+        }
+        for (int side = 0; side < 2; side++) {
+            if (!stale[side]) {
+                int feature = NnueNetwork.feature(side, kingSquares[side], pieceIndex, square);
+                kernels.add(values[side], network.featureWeights, feature * network.hiddenSize, network.hiddenSize);
+            }
+        }
+    }
+
+    @Override
+    public void pieceRemoved(int pieceIndex, int square) {
+        if (pieceIndex % 6 == KING) {
+            stale[pieceIndex / 6] = true;
+            return;
+        }
+        for (int side = 0; side < 2; side++) {
+            if (!stale[side]) {
+                int feature = NnueNetwork.feature(side, kingSquares[side], pieceIndex, square);
+                kernels.subtract(values[side], network.featureWeights, feature * network.hiddenSize, network.hiddenSize);
+            }
+        }
+    }
+
+    @Override
+    public void cleared() {
+        stale[0] = true;
+        stale[1] = true;
+    }
+
+    // The first-layer sums seen from one side, rebuilt first if that side's king has moved
+    short[] values(Color side) {
+        int s = side.ordinal();
+        if (stale[s]) {
+            refresh(s);
+        }
+        return values[s];
+    }
+
+    private void refresh(int side) {
+        short[] sums = values[side];
+        System.arraycopy(network.featureBiases, 0, sums, 0, sums.length);
+        int king = board.findKingSquare(COLORS[side]);
+        kingSquares[side] = king;
+        stale[side] = false;
+        if (king == Board.NO_SQUARE) {
+            return;
+        }
+        for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+            if (pieceIndex % 6 == KING) {
+                continue;
+            }
+            long pieces = board.getPieces(PIECE_TYPES[pieceIndex % 6], pieceIndex < 6 ? Color.WHITE : Color.BLACK);
+            while (pieces != 0) {
+                int square = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                int feature = NnueNetwork.feature(side, king, pieceIndex, square);
+                kernels.add(sums, network.featureWeights, feature * network.hiddenSize, sums.length);
+            }
+        }
+    }
+}
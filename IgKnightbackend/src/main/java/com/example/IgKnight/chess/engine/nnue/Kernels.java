@@ -0,0 +1,36 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+// The inner loops of the network, in a Vector API and a plain Java version. The Vector API lives in
+// an incubator module that the JVM only resolves when started with --add-modules
+// jdk.incubator.vector, so it is chosen only when that module is actually present.
+interface Kernels {
+
+    // accumulator[i] += weights[offset + i] for i < length
+    void add(short[] accumulator, short[] weights, int offset, int length);
+
+    // accumulator[i] -= weights[offset + i] for i < length
+    void subtract(short[] accumulator, short[] weights, int offset, int length);
+
+    // output[outputOffset + i] = clamp(values[i], 0, max) for i < length
+    void clippedRelu(short[] values, int[] output, int outputOffset, int length, int max);
+
+    // Sum of input[i] * weights[offset + i] for i < length
+    int dot(int[] input, int[] weights, int offset, int length);
+
+    boolean isVectorized();
+
+    static Kernels best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorKernels();
+            } catch (LinkageError e) {
+                // Fall through to the scalar loops
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    static Kernels scalar() {
+        return new ScalarKernels();
+    }
+}
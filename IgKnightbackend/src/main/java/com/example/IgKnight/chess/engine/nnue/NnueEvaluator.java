@@ -0,0 +1,61 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.search.Evaluator;
+
+// Evaluates with an NnueNetwork. The first time it sees a board it attaches an Accumulator as the
+// board's piece listener, so from then on the first layer costs only the incremental updates made
+// during make/unmake, and each evaluation is just the two small dense layers. Safe to share between
+// search threads as long as each thread searches its own board.
+public class NnueEvaluator implements Evaluator {
+
+    private final NnueNetwork network;
+    private final Kernels kernels;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this(network, true);
+    }
+
+    // useVectorApi only takes effect when the jdk.incubator.vector module is available
+    public NnueEvaluator(NnueNetwork network, boolean useVectorApi) {
+        this.network = network;
+        this.kernels = useVectorApi ? Kernels.best() : Kernels.scalar();
+    }
+
+    public boolean isVectorized() {
+        return kernels.isVectorized();
+    }
+
+    @Override
+    public int evaluate(Board board) {
+        Accumulator accumulator = accumulatorFor(board);
+        Color us = board.getCurrentTurn();
+        int hidden = network.hiddenSize;
+        int[] input = accumulator.input;
+        kernels.clippedRelu(accumulator.values(us), input, 0, hidden, NnueNetwork.ACTIVATION_MAX);
+        kernels.clippedRelu(accumulator.values(us.opposite()), input, hidden, hidden, NnueNetwork.ACTIVATION_MAX);
+
+        dense(input, network.l1Weights, network.l1Biases, accumulator.l1Output);
+        dense(accumulator.l1Output, network.l2Weights, network.l2Biases, accumulator.l2Output);
+        int output = network.outputBias + kernels.dot(accumulator.l2Output, network.outputWeights, 0, network.l2Size);
+        return output / NnueNetwork.OUTPUT_DIVISOR;
+    }
+
+    private void dense(int[] input, int[] weights, int[] biases, int[] output) {
+        int inputSize = input.length;
+        for (int neuron = 0; neuron < output.length; neuron++) {
+            int sum = biases[neuron] + kernels.dot(input, weights, neuron * inputSize, inputSize);
+            output[neuron] = Math.max(0, Math.min(sum >> NnueNetwork.WEIGHT_SHIFT, NnueNetwork.ACTIVATION_MAX));
+        }
+    }
+
+    private Accumulator accumulatorFor(Board board) {
+        if (board.getPieceListener() instanceof Accumulator accumulator && accumulator.getNetwork() == network) {
+            return accumulator;
+        }
+        Accumulator accumulator = new Accumulator(network, kernels, board);
+        board.setPieceListener(accumulator);
+        return accumulator;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Weights of a small quantized NNUE-style network with HalfKP-like inputs: for each side, one
+// feature per (own king square, non-king piece, square), so 64 * 10 * 64 features, feeding a
+// hidden layer of hiddenSize neurons per side that Accumulator keeps up to date as pieces move.
+// Both sides' hidden layers, side to move first, then pass through two dense layers to one output.
+//
+// Quantization: first-layer weights and biases are int16 with 127 meaning 1.0, and hidden
+// activations are clipped to 0..127. Dense weights are int16 with 64 meaning 1.0 and biases are
+// int32 in the scale of their layer's sums, which are shifted right by 6 before clipping to 0..127.
+// The output is centipawns for the side to move, times 127 * 64.
+//
+// File layout, all little-endian: int magic, int version, int hiddenSize, int l1Size, int l2Size,
+// then feature weights (feature-major), feature biases, l1 weights (neuron-major) and biases, l2
+// weights and biases, output weights and the output bias.
+public final class NnueNetwork {
+
+    public static final int FEATURES = 64 * 10 * 64;
+    public static final int ACTIVATION_MAX = 127;
+    public static final int WEIGHT_SHIFT = 6;
+    public static final int OUTPUT_DIVISOR = ACTIVATION_MAX * (1 << WEIGHT_SHIFT);
+
+    private static final int MAGIC = 0x4E4E4749; // "IGNN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+
+    final int hiddenSize;
+    final int l1Size;
+    final int l2Size;
+    final short[] featureWeights;
+    final short[] featureBiases;
+    // Dense weights are widened to int once at load so the dot products need no conversion
+    final int[] l1Weights;
+    final int[] l1Biases;
+    final int[] l2Weights;
+    final int[] l2Biases;
+    final int[] outputWeights;
+    final int outputBias;
+
+    private NnueNetwork(int hiddenSize, int l1Size, int l2Size) {
+        this.hiddenSize = hiddenSize;
+        this.l1Size = l1Size;
+        this.l2Size = l2Size;
+        this.featureWeights = new short[FEATURES * hiddenSize];
+        this.featureBiases = new short[hiddenSize];
+        this.l1Weights = new int[l1Size * 2 * hiddenSize];
+        this.l1Biases = new int[l1Size];
+        this.l2Weights = new int[l2Size * l1Size];
+        this.l2Biases = new int[l2Size];
+        this.outputWeights = new int[l2Size];
+        this.outputBias = 0;
+    }
+
+    private NnueNetwork(int hiddenSize, int l1Size, int l2Size, ByteBuffer data) {
+        this.hiddenSize = hiddenSize;
+        this.l1Size = l1Size;
+        this.l2Size = l2Size;
+        this.featureWeights = new short[FEATURES * hiddenSize];
+        this.featureBiases = new short[hiddenSize];
+        // The feature block is by far the largest, so it is bulk-copied straight out of the mapping
+        data.asShortBuffer().get(featureWeights);
+        data.position(data.position() + featureWeights.length * Short.BYTES);
+        readShorts(data, featureBiases);
+        this.l1Weights = readWidened(data, l1Size * 2 * hiddenSize);
+        this.l1Biases = readInts(data, l1Size);
+        this.l2Weights = readWidened(data, l2Size * l1Size);
+        this.l2Biases = readInts(data, l2Size);
+        this.outputWeights = readWidened(data, l2Size);
+        this.outputBias = data.getInt();
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    public static NnueNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an NNUE weights file: " + path);
+            }
+            int version = data.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported NNUE weights version " + version + " in " + path);
+            }
+            int hiddenSize = data.getInt();
+            int l1Size = data.getInt();
+            int l2Size = data.getInt();
+            if (hiddenSize <= 0 || l1Size <= 0 || l2Size <= 0 || data.remaining() != payloadBytes(hiddenSize, l1Size, l2Size)) {
+                throw new IllegalArgumentException("Truncated or malformed NNUE weights file: " + path);
+            }
+            return new NnueNetwork(hiddenSize, l1Size, l2Size, data);
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + (int) payloadBytes(hiddenSize, l1Size, l2Size))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC).putInt(VERSION).putInt(hiddenSize).putInt(l1Size).putInt(l2Size);
+        for (short weight : featureWeights) {
+            data.putShort(weight);
+        }
+        for (short bias : featureBiases) {
+            data.putShort(bias);
+        }
+        writeNarrowed(data, l1Weights);
+        writeInts(data, l1Biases);
+        writeNarrowed(data, l2Weights);
+        writeInts(data, l2Biases);
+        writeNarrowed(data, outputWeights);
+        data.putInt(outputBias);
+        data.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    // Untrained weights in a plausible range, for benchmarks and for exercising the file format
+    public static NnueNetwork random(long seed, int hiddenSize, int l1Size, int l2Size) {
+        Random random = new Random(seed);
+        NnueNetwork network = new NnueNetwork(hiddenSize, l1Size, l2Size);
+        for (int i = 0; i < network.featureWeights.length; i++) {
+            network.featureWeights[i] = (short) (random.nextInt(33) - 16);
+        }
+        for (int i = 0; i < hiddenSize; i++) {
+            network.featureBiases[i] = (short) random.nextInt(64);
+        }
+        fillRandom(random, network.l1Weights, 32);
+        fillRandom(random, network.l2Weights, 32);
+        fillRandom(random, network.outputWeights, 64);
+        return network;
+    }
+
+    // First-layer weights of one feature start at feature * hiddenSize
+    static int feature(int perspective, int kingSquare, int pieceIndex, int square) {
+        int color = pieceIndex >= 6 ? 1 : 0;
+        int piece = (color == perspective ? 0 : 5) + pieceIndex - color * 6;
+        // Each side sees the board from its own end, so one set of weights serves both
+        int flip = perspective == 0 ? 0 : 56;
+        return (((kingSquare ^ flip) * 10 + piece) << 6) | (square ^ flip);
+    }
+
+    private static long payloadBytes(int hiddenSize, int l1Size, int l2Size) {
+        long shorts = (long) FEATURES * hiddenSize + hiddenSize
+                + (long) l1Size * 2 * hiddenSize + (long) l2Size * l1Size + l2Size;
+        long ints = l1Size + l2Size + 1;
+        return shorts * Short.BYTES + ints * Integer.BYTES;
+    }
+
+    private static void readShorts(ByteBuffer data, short[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = data.getShort();
+        }
+    }
+
+    private static int[] readWidened(ByteBuffer data, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = data.getShort();
+        }
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer data, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = data.getInt();
+        }
+        return values;
+    }
+
+    private static void writeNarrowed(ByteBuffer data, int[] values) {
+        for (int value : values) {
+            data.putShort((short) value);
+        }
+    }
+
+    private static void writeInts(ByteBuffer data, int[] values) {
+        for (int value : values) {
+            data.putInt(value);
+        }
+    }
+
+    private static void fillRandom(Random random, int[] values, int range) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(2 * range + 1) - range;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void clippedRelu(short[] values, int[] output, int outputOffset, int length, int max) {
+        for (int i = 0; i < length; i++) {
+            output[outputOffset + i] = Math.max(0, Math.min(values[i], max));
+        }
+    }
+
+    @Override
+    public int dot(int[] input, int[] weights, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += input[i] * weights[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+}
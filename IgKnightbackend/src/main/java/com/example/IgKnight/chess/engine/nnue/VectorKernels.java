@@ -0,0 +1,81 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Uses the widest vectors the CPU supports; loops finish any remainder one element at a time
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset, int length) {
+        int upper = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset, int length) {
+        int upper = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void clippedRelu(short[] values, int[] output, int outputOffset, int length, int max) {
+        // Clamp as shorts, then widen each half of the vector into an int vector of the same size
+        int parts = SHORTS.length() / INTS.length();
+        int upper = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SHORTS.length()) {
+            ShortVector clipped = ShortVector.fromArray(SHORTS, values, i).max((short) 0).min((short) max);
+            for (int part = 0; part < parts; part++) {
+                ((IntVector) clipped.convertShape(VectorOperators.S2I, INTS, part))
+                        .intoArray(output, outputOffset + i + part * INTS.length());
+            }
+        }
+        for (; i < length; i++) {
+            output[outputOffset + i] = Math.max(0, Math.min(values[i], max));
+        }
+    }
+
+    @Override
+    public int dot(int[] input, int[] weights, int offset, int length) {
+        int upper = INTS.loopBound(length);
+        IntVector sums = IntVector.zero(INTS);
+        int i = 0;
+        for (; i < upper; i += INTS.length()) {
+            sums = IntVector.fromArray(INTS, input, i)
+                    .mul(IntVector.fromArray(INTS, weights, offset + i))
+                    .add(sums);
+        }
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += input[i] * weights[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}
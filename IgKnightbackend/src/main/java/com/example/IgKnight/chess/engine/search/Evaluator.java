@@ -0,0 +1,10 @@
+package com.example.IgKnight.chess.engine.search;
+
+import com.example.IgKnight.chess.engine.Board;
+
+// Static evaluation used at the leaves of the search
+public interface Evaluator {
+
+    // Centipawns from the point of view of the side to move
+    int evaluate(Board board);
+}
@@ -0,0 +1,232 @@
+package com.example.IgKnight.chess.engine.search;
+
+import com.example.IgKnight.chess.engine.Attacks;
+import com.example.IgKnight.chess.engine.Bitboards;
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.PieceSquareTables;
+import com.example.IgKnight.chess.engine.PieceType;
+
+// Tapered evaluation: every term has a middlegame and an endgame score, blended by the phase Board
+// keeps. Material and piece-square scores come from Board's running totals, pawn structure from the
+// pawn hash, and only mobility and king safety are computed per call, from one attack lookup per
+// piece. Safe to share between search threads.
+public class HandcraftedEvaluator implements Evaluator {
+
+    private static final PieceType[] MOBILE_PIECES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    // Indexed by PieceType ordinal. Mobility counts reachable squares not covered by enemy pawns,
+    // relative to a typical count so that an average piece scores around zero.
+    private static final int[] MOBILITY_MIDDLEGAME = {0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 4, 5, 4, 2, 0};
+    private static final int[] MOBILITY_BASELINE = {0, 4, 6, 7, 13, 0};
+    private static final int[] KING_ATTACK_WEIGHT = {0, 2, 2, 3, 5, 0};
+
+    private static final int KING_DANGER_CAP = 400;
+    private static final int SHIELD_CLOSE = 12;
+    private static final int SHIELD_FAR = 6;
+    private static final int OPEN_FILE_NEAR_KING = -15;
+    private static final int BISHOP_PAIR_MIDDLEGAME = 30;
+    private static final int BISHOP_PAIR_ENDGAME = 50;
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int SUPPORTED_MIDDLEGAME = 5;
+    private static final int SUPPORTED_ENDGAME = 8;
+    // By rank counted from the pawn's own side; on top of the pawn piece-square tables
+    private static final int[] PASSED_MIDDLEGAME = {0, 0, 5, 10, 20, 35, 55, 0};
+    private static final int[] PASSED_ENDGAME = {0, 5, 10, 20, 40, 70, 110, 0};
+
+    private static final long[] ADJACENT_FILES = new long[8];
+    // Indexed by color ordinal and square: the squares ahead on the same file, and ahead on the same
+    // and adjacent files (a pawn with no enemy pawns there is passed)
+    private static final long[][] FORWARD = new long[2][64];
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    // The three files around a king square, one and two ranks towards the enemy
+    private static final long[][] SHIELD_CLOSE_SQUARES = new long[2][64];
+    private static final long[][] SHIELD_FAR_SQUARES = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            long adjacent = 0L;
+            if (file > 0) {
+                adjacent |= Bitboards.FILE_A << (file - 1);
+            }
+            if (file < 7) {
+                adjacent |= Bitboards.FILE_A << (file + 1);
+            }
+            ADJACENT_FILES[file] = adjacent;
+        }
+        for (int square = 0; square < 64; square++) {
+            int rank = square >>> 3;
+            long file = Bitboards.FILE_A << (square & 7);
+            long span = file | ADJACENT_FILES[square & 7];
+            long above = rank < 7 ? -1L << ((rank + 1) * 8) : 0L;
+            long below = rank > 0 ? -1L >>> ((8 - rank) * 8) : 0L;
+            FORWARD[Color.WHITE.ordinal()][square] = file & above;
+            FORWARD[Color.BLACK.ordinal()][square] = file & below;
+            PASSED_SPAN[Color.WHITE.ordinal()][square] = span & above;
+            PASSED_SPAN[Color.BLACK.ordinal()][square] = span & below;
+            SHIELD_CLOSE_SQUARES[Color.WHITE.ordinal()][square] = rank < 7 ? span & Bitboards.RANK_1 << ((rank + 1) * 8) : 0L;
+            SHIELD_FAR_SQUARES[Color.WHITE.ordinal()][square] = rank < 6 ? span & Bitboards.RANK_1 << ((rank + 2) * 8) : 0L;
+            SHIELD_CLOSE_SQUARES[Color.BLACK.ordinal()][square] = rank > 0 ? span & Bitboards.RANK_1 << ((rank - 1) * 8) : 0L;
+            SHIELD_FAR_SQUARES[Color.BLACK.ordinal()][square] = rank > 1 ? span & Bitboards.RANK_1 << ((rank - 2) * 8) : 0L;
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+
+    public HandcraftedEvaluator() {
+        this(1);
+    }
+
+    public HandcraftedEvaluator(int pawnHashSizeMb) {
+        this.pawnTable = new PawnHashTable(pawnHashSizeMb);
+    }
+
+    @Override
+    public int evaluate(Board board) {
+        int middlegame = board.getMiddlegameScore();
+        int endgame = board.getEndgameScore();
+
+        long pawnKey = board.getPawnKey();
+        long pawns = pawnTable.probe(pawnKey);
+        if (pawns == PawnHashTable.NOT_FOUND) {
+            pawns = evaluatePawns(board);
+            pawnTable.store(pawnKey, pawns);
+        }
+        middlegame += PawnHashTable.middlegame(pawns);
+        endgame += PawnHashTable.endgame(pawns);
+
+        long whitePawnAttacks = pawnAttacks(board.getPieces(PieceType.PAWN, Color.WHITE), Color.WHITE);
+        long blackPawnAttacks = pawnAttacks(board.getPieces(PieceType.PAWN, Color.BLACK), Color.BLACK);
+        long white = evaluatePieces(board, Color.WHITE, blackPawnAttacks);
+        long black = evaluatePieces(board, Color.BLACK, whitePawnAttacks);
+        middlegame += PawnHashTable.middlegame(white) - PawnHashTable.middlegame(black);
+        endgame += PawnHashTable.endgame(white) - PawnHashTable.endgame(black);
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return board.getCurrentTurn() == Color.WHITE ? score : -score;
+    }
+
+    // Mobility, attacks on the enemy king, the bishop pair and this side's own king shelter, packed
+    // the same way as pawn hash entries
+    private static long evaluatePieces(Board board, Color color, long enemyPawnAttacks) {
+        long occupied = board.getOccupied();
+        long mobilityArea = ~board.getPieces(color) & ~enemyPawnAttacks;
+        int enemyKing = board.findKingSquare(color.opposite());
+        long kingZone = enemyKing != Board.NO_SQUARE ? Attacks.king(enemyKing) | Bitboards.bit(enemyKing) : 0L;
+
+        int middlegame = 0;
+        int endgame = 0;
+        int kingAttackers = 0;
+        int kingAttackUnits = 0;
+        for (PieceType type : MOBILE_PIECES) {
+            int t = type.ordinal();
+            long pieces = board.getPieces(type, color);
+            while (pieces != 0) {
+                int square = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+                long attacks = switch (type) {
+                    case KNIGHT -> Attacks.knight(square);
+                    case BISHOP -> Attacks.bishop(square, occupied);
+                    case ROOK -> Attacks.rook(square, occupied);
+                    default -> Attacks.queen(square, occupied);
+                };
+                int mobility = Bitboards.count(attacks & mobilityArea) - MOBILITY_BASELINE[t];
+                middlegame += mobility * MOBILITY_MIDDLEGAME[t];
+                endgame += mobility * MOBILITY_ENDGAME[t];
+                long zoneAttacks = attacks & kingZone;
+                if (zoneAttacks != 0) {
+                    kingAttackers++;
+                    kingAttackUnits += KING_ATTACK_WEIGHT[t] * Bitboards.count(zoneAttacks);
+                }
+            }
+        }
+        // A lone attacker is rarely dangerous; the danger grows quadratically with the weight
+        if (kingAttackers >= 2) {
+            middlegame += Math.min(kingAttackUnits * kingAttackUnits / 2, KING_DANGER_CAP);
+        }
+
+        if (board.getPieceCount(PieceType.BISHOP, color) >= 2) {
+            middlegame += BISHOP_PAIR_MIDDLEGAME;
+            endgame += BISHOP_PAIR_ENDGAME;
+        }
+
+        middlegame += kingShelter(board, color);
+        return PawnHashTable.pack(middlegame, endgame);
+    }
+
+    // Middlegame only: the taper fades it out as pieces come off and the king should come forward
+    private static int kingShelter(Board board, Color color) {
+        int king = board.findKingSquare(color);
+        if (king == Board.NO_SQUARE) {
+            return 0;
+        }
+        int c = color.ordinal();
+        long pawns = board.getPieces(PieceType.PAWN, color);
+        int score = SHIELD_CLOSE * Bitboards.count(pawns & SHIELD_CLOSE_SQUARES[c][king])
+                + SHIELD_FAR * Bitboards.count(pawns & SHIELD_FAR_SQUARES[c][king]);
+        int kingFile = king & 7;
+        for (int file = Math.max(0, kingFile - 1); file <= Math.min(7, kingFile + 1); file++) {
+            if ((pawns & Bitboards.FILE_A << file) == 0) {
+                score += OPEN_FILE_NEAR_KING;
+            }
+        }
+        return score;
+    }
+
+    // Depends on nothing but pawn placement, so the result can be cached under the pawn key
+    private static long evaluatePawns(Board board) {
+        long white = evaluatePawns(board, Color.WHITE);
+        long black = evaluatePawns(board, Color.BLACK);
+        return PawnHashTable.pack(PawnHashTable.middlegame(white) - PawnHashTable.middlegame(black),
+                PawnHashTable.endgame(white) - PawnHashTable.endgame(black));
+    }
+
+    private static long evaluatePawns(Board board, Color color) {
+        int c = color.ordinal();
+        long pawns = board.getPieces(PieceType.PAWN, color);
+        long enemyPawns = board.getPieces(PieceType.PAWN, color.opposite());
+        long supported = pawnAttacks(pawns, color);
+
+        int middlegame = 0;
+        int endgame = 0;
+        long remaining = pawns;
+        while (remaining != 0) {
+            int square = Bitboards.lowestSquare(remaining);
+            remaining &= remaining - 1;
+
+            boolean doubled = (FORWARD[c][square] & pawns) != 0;
+            if (doubled) {
+                middlegame += DOUBLED_MIDDLEGAME;
+                endgame += DOUBLED_ENDGAME;
+            }
+            if ((ADJACENT_FILES[square & 7] & pawns) == 0) {
+                middlegame += ISOLATED_MIDDLEGAME;
+                endgame += ISOLATED_ENDGAME;
+            }
+            if ((supported & Bitboards.bit(square)) != 0) {
+                middlegame += SUPPORTED_MIDDLEGAME;
+                endgame += SUPPORTED_ENDGAME;
+            }
+            // Only the front pawn of a doubled pair counts as passed
+            if (!doubled && (PASSED_SPAN[c][square] & enemyPawns) == 0) {
+                int rank = color == Color.WHITE ? square >>> 3 : 7 - (square >>> 3);
+                middlegame += PASSED_MIDDLEGAME[rank];
+                endgame += PASSED_ENDGAME[rank];
+            }
+        }
+        return PawnHashTable.pack(middlegame, endgame);
+    }
+
+    private static long pawnAttacks(long pawns, Color color) {
+        if (color == Color.WHITE) {
+            return (pawns & ~Bitboards.FILE_A) << 7 | (pawns & ~Bitboards.FILE_H) << 9;
+        }
+        return (pawns & ~Bitboards.FILE_A) >>> 9 | (pawns & ~Bitboards.FILE_H) >>> 7;
+    }
+}
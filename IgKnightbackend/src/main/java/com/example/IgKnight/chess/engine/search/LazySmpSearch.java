@@ -0,0 +1,102 @@
+package com.example.IgKnight.chess.engine.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.example.IgKnight.chess.engine.Board;
+
+// Lazy SMP: every thread runs its own iterative deepening over the same root on its own board
+// copy, and they cooperate only through the shared lock-free transposition table. Odd helpers run
+// one ply ahead of the main thread, so the table fills with deeper results than the main thread
+// would reach alone. The deepest completed iteration wins, the main thread's on a tie.
+// One search runs at a time per instance.
+public class LazySmpSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final Search[] workers;
+    private final ExecutorService helpers;
+
+    public LazySmpSearch(Evaluator evaluator, int hashSizeMb, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("Lazy SMP needs at least one thread");
+        }
+        this.table = new TranspositionTable(hashSizeMb);
+        this.workers = new Search[maxThreads];
+        for (int i = 0; i < maxThreads; i++) {
+            workers[i] = new Search(evaluator, table);
+        }
+        this.helpers = maxThreads > 1 ? Executors.newFixedThreadPool(maxThreads - 1) : null;
+    }
+
+    public int getMaxThreads() {
+        return workers.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Searches with the calling thread plus threads - 1 helpers, capped at the configured maximum.
+    // The board is unchanged afterwards.
+    public synchronized SearchResult search(Board board, SearchLimits limits, int threads) {
+        int threadCount = Math.max(1, Math.min(threads, workers.length));
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        table.newSearch();
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>(threadCount - 1);
+        for (int i = 1; i < threadCount; i++) {
+            Search worker = workers[i];
+            Board position = board.copy();
+            int firstDepth = 1 + (i & 1);
+            helperResults.add(helpers.submit(() -> worker.search(position, limits, firstDepth, stopSignal)));
+        }
+
+        SearchResult best;
+        try {
+            best = workers[0].search(board, limits, 1, stopSignal);
+        } finally {
+            // Helpers only ever help the main thread, so they stop when it does
+            stopSignal.set(true);
+        }
+
+        long nodes = best.getNodes();
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult helper = join(future);
+            nodes += helper.getNodes();
+            if (helper.getDepth() > best.getDepth()) {
+                best = helper;
+            }
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes,
+                best.getElapsedNanos(), best.getPrincipalVariation());
+    }
+
+    public void stop() {
+        for (Search worker : workers) {
+            worker.stop();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for search helper", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.IgKnight.chess.engine.search;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+
+// Material balance only, read from the counters Board keeps up to date, so it costs nothing per node
+public class MaterialEvaluator implements Evaluator {
+
+    @Override
+    public int evaluate(Board board) {
+        Color us = board.getCurrentTurn();
+        return (board.getMaterial(us) - board.getMaterial(us.opposite())) * 100;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.IgKnight.chess.engine.search;
+
+// Pawn-structure scores keyed by Board's pawn key. Pawns move rarely, so nearly every evaluation in
+// a search finds its structure here. Shared without locks the same way as TranspositionTable: each
+// slot holds the entry and the key XOR the entry, and a torn slot reads as a miss. The entry is the
+// middlegame score in the high 32 bits and the endgame score in the low 32 bits, both from white's
+// point of view; an empty slot decodes as 0/0, which is also the right answer for key 0 (no pawns).
+public class PawnHashTable {
+
+    // pack would need a middlegame score of Integer.MIN_VALUE to produce this
+    public static final long NOT_FOUND = Long.MIN_VALUE;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    public PawnHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Pawn hash table size must be at least 1 MB");
+        }
+        int size = (int) Math.min(Long.highestOneBit(megabytes * 1024L * 1024L / BYTES_PER_ENTRY), 1 << 30);
+        this.keys = new long[size];
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    // Returns the stored entry, or NOT_FOUND
+    public long probe(long pawnKey) {
+        int slot = (int) pawnKey & mask;
+        long entry = entries[slot];
+        return (keys[slot] ^ entry) == pawnKey ? entry : NOT_FOUND;
+    }
+
+    public void store(long pawnKey, long entry) {
+        int slot = (int) pawnKey & mask;
+        entries[slot] = entry;
+        keys[slot] = pawnKey ^ entry;
+    }
+
+    public static long pack(int middlegame, int endgame) {
+        return (long) middlegame << 32 | (endgame & 0xFFFFFFFFL);
+    }
+
+    public static int middlegame(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int endgame(long entry) {
+        return (int) entry;
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.IgKnight.chess.engine.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.Piece;
+import com.example.IgKnight.chess.engine.PieceType;
+
+// Iterative-deepening principal variation search with a quiescence search on captures. Moves are
+// tried hash move first, then captures by MVV-LVA, then killers, then quiet moves by history.
+// An instance keeps per-ply buffers and is not thread-safe; use one per thread. Several instances
+// may share one TranspositionTable, which is how LazySmpSearch runs them in parallel.
+public class Search {
+
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 128;
+
+    // Ordering bands, highest first
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = 1 << 27;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // MVV-LVA values indexed by PieceType ordinal; the king only ever appears as an attacker
+    private static final int[] ORDER_VALUES = {1, 3, 3, 5, 9, 10};
+
+    // Nodes between clock checks
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][MoveList.DEFAULT_CAPACITY];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[2][64 * 64];
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private long deadline;
+    private long maxNodes;
+    private boolean stopAllowed;
+    private boolean stopped;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    public Search(Evaluator evaluator, int hashSizeMb) {
+        this(evaluator, new TranspositionTable(hashSizeMb));
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Asks a running search to return its last completed iteration; safe to call from another thread
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    // Searches the side to move. The board is played on and taken back, and is unchanged afterwards.
+    public SearchResult search(Board board, SearchLimits limits) {
+        table.newSearch();
+        return search(board, limits, 1, new AtomicBoolean());
+    }
+
+    // Iterates from firstDepth, until the limits are reached or stopSignal is set. Lazy SMP helpers
+    // share one signal and start at different depths; table ageing is left to the caller.
+    SearchResult search(Board board, SearchLimits limits, int firstDepth, AtomicBoolean stopSignal) {
+        long start = System.nanoTime();
+        nodes = 0;
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        stopped = false;
+        this.stopSignal = stopSignal;
+        for (int[] pair : killers) {
+            Arrays.fill(pair, PackedMove.NONE);
+        }
+        for (int[] scores : history) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 3;
+            }
+        }
+
+        MoveList rootMoves = new MoveList();
+        LegalMoveGenerator.generate(board, rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = isInCheck(board) ? -MATE : 0;
+            return new SearchResult(PackedMove.NONE, score, 0, 0, System.nanoTime() - start, new int[0]);
+        }
+
+        // The first iteration always completes, so there is a move to play whatever the limits
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] principalVariation = {bestMove};
+        for (int depth = Math.min(firstDepth, limits.getMaxDepth()); depth <= limits.getMaxDepth(); depth++) {
+            stopAllowed = depth > firstDepth;
+            int score = search(board, depth, 0, -INFINITY, INFINITY, true);
+            if (stopped) {
+                break;
+            }
+            completedDepth = depth;
+            bestScore = score;
+            if (pvLength[0] > 0) {
+                bestMove = pvTable[0][0];
+                principalVariation = Arrays.copyOf(pvTable[0], pvLength[0]);
+            }
+            // A forced mate found at this depth will not get any shorter by searching deeper
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start, principalVariation);
+    }
+
+    private int search(Board board, int depth, int ply, int alpha, int beta, boolean pvNode) {
+        pvLength[ply] = 0;
+        if (ply > 0) {
+            if (isDraw(board)) {
+                return 0;
+            }
+            // A mate already found closer to the root cannot be improved on here
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        boolean inCheck = isInCheck(board);
+        if (inCheck && ply < MAX_PLY / 2) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(board, ply, alpha, beta);
+        }
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(board);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = board.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        LegalMoveGenerator.generate(board, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(board, moves, moveScores[ply], hashMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextBestMove(moves, moveScores[ply], i);
+            board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -search(board, depth - 1, ply + 1, -beta, -alpha, pvNode);
+            } else {
+                // Prove the move is no better than the current best with a null window first
+                score = -search(board, depth - 1, ply + 1, -alpha - 1, -alpha, false);
+                if (score > alpha && score < beta) {
+                    score = -search(board, depth - 1, ply + 1, -beta, -alpha, true);
+                }
+            }
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        if (!isTactical(move)) {
+                            rememberQuietCutoff(board.getCurrentTurn(), move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT
+                : TranspositionTable.UPPER_BOUND;
+        table.store(key, bound == TranspositionTable.UPPER_BOUND ? PackedMove.NONE : bestMove,
+                scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // Resolves captures and promotions until the position is quiet, so the static evaluation is
+    // never taken in the middle of an exchange. In check every evasion is searched instead.
+    private int quiescence(Board board, int ply, int alpha, int beta) {
+        pvLength[ply] = 0;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(board);
+        }
+
+        boolean inCheck = isInCheck(board);
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = evaluator.evaluate(board);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MoveList moves = moveLists[ply];
+        LegalMoveGenerator.generate(board, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : bestScore;
+        }
+        scoreMoves(board, moves, moveScores[ply], PackedMove.NONE, ply);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextBestMove(moves, moveScores[ply], i);
+            if (!inCheck && !isTactical(move)) {
+                // Tactical moves sort first, so the rest are all quiet
+                break;
+            }
+            board.makeMove(move);
+            int score = -quiescence(board, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private void scoreMoves(Board board, MoveList moves, int[] scores, int hashMove, int ply) {
+        int side = board.getCurrentTurn().ordinal();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (hashMove != PackedMove.NONE && PackedMove.sameMove(move, hashMove)) {
+                score = HASH_MOVE_SCORE;
+            } else if (isTactical(move)) {
+                // Most valuable victim first, least valuable attacker breaking ties
+                int victim = PackedMove.isCapture(move) ? ORDER_VALUES[capturedType(board, move).ordinal()] : 0;
+                int attacker = ORDER_VALUES[board.getPiece(PackedMove.from(move)).getType().ordinal()];
+                int promotion = PackedMove.isPromotion(move) ? ORDER_VALUES[PackedMove.promotion(move).ordinal()] : 0;
+                score = CAPTURE_SCORE + (victim + promotion) * 16 - attacker;
+            } else if (move == killers[ply][0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = history[side][historyIndex(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    // Selection sort one step at a time: cutoffs usually come early, so most moves are never sorted
+    private static int nextBestMove(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void rememberQuietCutoff(Color side, int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] scores = history[side.ordinal()];
+        int index = historyIndex(move);
+        scores[index] += depth * depth;
+        if (scores[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 1;
+            }
+        }
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[0] = move;
+        int childLength = ply + 1 <= MAX_PLY ? pvLength[ply + 1] : 0;
+        System.arraycopy(pvTable[ply + 1], 0, line, 1, Math.min(childLength, line.length - 1));
+        pvLength[ply] = Math.min(childLength + 1, line.length);
+    }
+
+    // True once the search has to stop; checks the clock only every few thousand nodes
+    private boolean countNode() {
+        nodes++;
+        if (stopAllowed && (nodes & (CHECK_INTERVAL - 1)) == 0
+                && (stopSignal.get() || nodes >= maxNodes || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private static boolean isDraw(Board board) {
+        return board.getHalfMoveClock() >= 100 || board.countRepetitions() >= 2 || board.isInsufficientMaterial();
+    }
+
+    private static boolean isInCheck(Board board) {
+        Color us = board.getCurrentTurn();
+        int king = board.findKingSquare(us);
+        return king != Board.NO_SQUARE && board.isSquareAttacked(king, us.opposite());
+    }
+
+    private static boolean isTactical(int move) {
+        return PackedMove.isCapture(move) || PackedMove.isPromotion(move);
+    }
+
+    private static PieceType capturedType(Board board, int move) {
+        if (PackedMove.isEnPassant(move)) {
+            return PieceType.PAWN;
+        }
+        Piece captured = board.getPiece(PackedMove.to(move));
+        return captured != null ? captured.getType() : PieceType.PAWN;
+    }
+
+    private static int historyIndex(int move) {
+        return PackedMove.from(move) << 6 | PackedMove.to(move);
+    }
+
+    // Mate scores are stored relative to the node, not the root, so they stay right when the same
+    // position is reached at another ply
+    static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
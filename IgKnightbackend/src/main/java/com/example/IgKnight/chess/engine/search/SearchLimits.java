@@ -0,0 +1,47 @@
+package com.example.IgKnight.chess.engine.search;
+
+// When iterative deepening stops: after maxDepth plies, once timeMillis has passed or after
+// maxNodes nodes, whichever comes first. A zero time or node limit means no limit.
+public class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+
+    private final int maxDepth;
+    private final long timeMillis;
+    private final long maxNodes;
+
+    public SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+        if (maxDepth < 1 || timeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Invalid search limits: depth " + maxDepth
+                    + ", time " + timeMillis + " ms, nodes " + maxNodes);
+        }
+        this.maxDepth = Math.min(maxDepth, MAX_DEPTH);
+        this.timeMillis = timeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(MAX_DEPTH, millis, 0);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + maxDepth + ", time " + timeMillis + " ms, nodes " + maxNodes;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.IgKnight.chess.engine.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.IgKnight.chess.engine.Move;
+import com.example.IgKnight.chess.engine.PackedMove;
+
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.principalVariation = principalVariation;
+    }
+
+    // PackedMove.NONE when the side to move has no legal move
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public Move toMove() {
+        return bestMove != PackedMove.NONE ? PackedMove.toMove(bestMove) : null;
+    }
+
+    // Centipawns for the side to move; mate scores are within Search.MAX_PLY of +/- Search.MATE
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos > 0 ? (long) (nodes * 1_000_000_000.0 / elapsedNanos) : 0;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    public List<String> getPrincipalVariationAlgebraic() {
+        List<String> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(PackedMove.toAlgebraic(move));
+        }
+        return moves;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d score %d nodes %,d in %.1f ms (%,d nps) pv %s",
+                depth, score, nodes, elapsedNanos / 1_000_000.0, getNodesPerSecond(),
+                String.join(" ", getPrincipalVariationAlgebraic()));
+    }
+}
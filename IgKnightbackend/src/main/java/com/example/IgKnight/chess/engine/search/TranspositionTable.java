@@ -0,0 +1,111 @@
+package com.example.IgKnight.chess.engine.search;
+
+import java.util.Arrays;
+
+// Fixed-size hash of search results keyed by Zobrist key, one entry per slot, shared without locks
+// by every thread of a Lazy SMP search. Each slot is two longs, the entry and the key XOR the entry;
+// a reader only accepts an entry whose XOR with the stored word gives back its own key, so a slot
+// torn by two racing writers reads as a miss instead of as another position's result. The entry:
+//   bits 0-17   best move (PackedMove)
+//   bits 18-33  score, offset by 32768
+//   bits 34-41  depth
+//   bits 42-43  bound (0 = empty slot)
+//   bits 44-51  search generation, so entries from earlier searches are replaced first
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final long MOVE_MASK = (1L << 18) - 1;
+    private static final int SCORE_SHIFT = 18;
+    private static final int DEPTH_SHIFT = 34;
+    private static final int BOUND_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 44;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    // Only changed by newSearch, before any helper thread starts
+    private int generation;
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        // Largest power of two that fits, so the slot is the key's low bits
+        long slots = Long.highestOneBit(megabytes * 1024L * 1024L / BYTES_PER_ENTRY);
+        int size = (int) Math.min(slots, 1 << 30);
+        this.keys = new long[size];
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    // Returns the entry stored for this key, or 0 when there is none
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = entries[slot];
+        return (keys[slot] ^ entry) == key ? entry : 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int slot = (int) key & mask;
+        long existing = entries[slot];
+        boolean samePosition = (keys[slot] ^ existing) == key;
+        // Keep a deeper entry from the current search for a different position
+        if (existing != 0 && !samePosition && generation(existing) == generation && depth(existing) > depth) {
+            return;
+        }
+        // Keep the old best move when this result found none, e.g. a fail-low
+        if (move == 0 && samePosition) {
+            move = move(existing);
+        }
+        long entry = pack(move, score, depth, bound, generation);
+        entries[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    // Called once per search, ageing out everything stored before it
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & MOVE_MASK)
+                | (long) (score + 32768) << SCORE_SHIFT
+                | (long) Math.max(0, Math.min(depth, 255)) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) generation << GENERATION_SHIFT;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int score(long entry) {
+        return (int) ((entry >>> SCORE_SHIFT) & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+    }
+
+    static int generation(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & 0xFF);
+    }
+}
@@ -83,6 +83,9 @@ public class Game {
     @Column(name = "is_rated")
     private Boolean isRated = false;
 
+    @Column(name = "bot_level")
+    private Integer botLevel; // null unless black is played by the bot
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -229,6 +232,18 @@ public class Game {
         this.isRated = isRated;
     }
 
+    public Integer getBotLevel() {
+        return botLevel;
+    }
+
+    public void setBotLevel(Integer botLevel) {
+        this.botLevel = botLevel;
+    }
+
+    public boolean isBotGame() {
+        return botLevel != null;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
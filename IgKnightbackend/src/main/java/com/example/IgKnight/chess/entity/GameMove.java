@@ -73,6 +73,12 @@ public class GameMove {
     @Column(name = "fen_after_move", length = 100)
     private String fenAfterMove;
 
+    @Column(name = "position_after_move", length = 32)
+    private byte[] positionAfterMove; // PackedPosition, stored instead of the FEN when binary position storage is on
+
+    @Column(name = "position_key")
+    private Long positionKey; // Zobrist key of the position after the move
+
     @Column(name = "time_taken")
     private Integer timeTaken; // in milliseconds
 
@@ -213,6 +219,22 @@ public class GameMove {
         this.fenAfterMove = fenAfterMove;
     }
 
+    public byte[] getPositionAfterMove() {
+        return positionAfterMove;
+    }
+
+    public void setPositionAfterMove(byte[] positionAfterMove) {
+        this.positionAfterMove = positionAfterMove;
+    }
+
+    public Long getPositionKey() {
+        return positionKey;
+    }
+
+    public void setPositionKey(Long positionKey) {
+        this.positionKey = positionKey;
+    }
+
     public Integer getTimeTaken() {
         return timeTaken;
     }
@@ -0,0 +1,172 @@
+package com.example.IgKnight.chess.perft;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.service.MoveGenerator;
+import com.example.IgKnight.chess.service.MoveValidator;
+
+// Perft with the top of the tree split across a ForkJoinPool. Every task works on its own board
+// copy with its own Perft (and so its own per-ply move buffers); nothing is shared but the
+// stateless validator. Run from IgKnightbackend with:
+//   ./mvnw -q compile exec:java -Dexec.mainClass=com.example.IgKnight.chess.perft.ParallelPerft -Dexec.args="[depth] [fen]"
+// to measure speedup and efficiency at 1, 2, 4, ... threads up to the core count.
+public class ParallelPerft {
+
+    // Below this many remaining plies a subtree is too small to be worth a task of its own
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    private final ForkJoinPool pool;
+    private final MoveValidator moveValidator;
+
+    public ParallelPerft(ForkJoinPool pool) {
+        this(pool, new MoveValidator(new MoveGenerator()));
+    }
+
+    public ParallelPerft(ForkJoinPool pool, MoveValidator moveValidator) {
+        this.pool = pool;
+        this.moveValidator = moveValidator;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // The board passed in is only copied, never modified
+    public long perft(Board board, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return pool.invoke(new PerftTask(board.copy(), depth, splitPlies(depth)));
+    }
+
+    public Map<String, Long> divide(Board board, int depth) {
+        MoveList moves = new MoveList();
+        moveValidator.generateLegalMoves(board, moves);
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(childTask(board, moves.get(i), depth - 1, splitPlies(depth) - 1));
+        }
+        pool.invoke(new JoinAll(tasks));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(PackedMove.toAlgebraic(moves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    public PerftResult run(String fen, int depth) {
+        Board board = Board.fromFEN(fen);
+        long start = System.nanoTime();
+        long nodes = perft(board, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    // Splitting the root alone leaves as few as 20 tasks, so deep runs split one more ply to keep
+    // every worker busy until the end
+    private static int splitPlies(int depth) {
+        return depth >= MIN_SPLIT_DEPTH + 2 ? 2 : 1;
+    }
+
+    private PerftTask childTask(Board board, int move, int depth, int splitPlies) {
+        Board child = board.copy();
+        child.makeMove(move);
+        return new PerftTask(child, depth, splitPlies);
+    }
+
+    // Never serialized; ForkJoinTask is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private class PerftTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(Board board, int depth, int splitPlies) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies <= 0 || depth < MIN_SPLIT_DEPTH) {
+                return new Perft(moveValidator).perft(board, depth);
+            }
+            MoveList moves = new MoveList();
+            moveValidator.generateLegalMoves(board, moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                tasks.add(childTask(board, moves.get(i), depth - 1, splitPlies - 1));
+            }
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class JoinAll extends RecursiveTask<Void> {
+        private final List<PerftTask> tasks;
+
+        JoinAll(List<PerftTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Void compute() {
+            invokeAll(tasks);
+            return null;
+        }
+    }
+
+    public static void main(String[] args) {
+        Integer depth = null;
+        String fen = null;
+        for (String arg : args) {
+            if (depth == null && arg.matches("\\d+")) {
+                depth = Integer.parseInt(arg);
+            } else {
+                fen = fen == null ? arg : fen + " " + arg;
+            }
+        }
+        String position = fen != null ? fen : PerftPosition.REFERENCE.get(1).getFen();
+        int searchDepth = depth != null ? depth : 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println(position + " at depth " + searchDepth + ", " + cores + " cores available");
+        // Warm up the JIT once so the single-threaded baseline is not measured cold
+        new Perft().run(position, Math.min(searchDepth, 4));
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        long baselineNanos = 0;
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                PerftResult result = new ParallelPerft(pool).run(position, searchDepth);
+                if (threads == 1) {
+                    baselineNanos = result.getElapsedNanos();
+                }
+                double speedup = baselineNanos / (double) result.getElapsedNanos();
+                System.out.printf("%3d threads: %s, speedup %.2fx, efficiency %.0f%%%n",
+                        threads, result, speedup, 100 * speedup / threads);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
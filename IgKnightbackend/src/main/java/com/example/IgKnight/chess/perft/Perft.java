@@ -0,0 +1,134 @@
+package com.example.IgKnight.chess.perft;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.service.MoveGenerator;
+import com.example.IgKnight.chess.service.MoveValidator;
+
+// Counts leaf nodes of the legal move tree to check move generation against known totals.
+// Run from IgKnightbackend with:
+//   ./mvnw -q compile exec:java -Dexec.mainClass=com.example.IgKnight.chess.perft.Perft -Dexec.args="[depth] [fen] [--divide]"
+// Without a FEN it runs the reference suite.
+public class Perft {
+
+    private final MoveValidator moveValidator;
+    // One move buffer per ply, reused across the whole tree
+    private MoveList[] moveLists = new MoveList[0];
+
+    public Perft() {
+        this(new MoveValidator(new MoveGenerator()));
+    }
+
+    public Perft(MoveValidator moveValidator) {
+        this.moveValidator = moveValidator;
+    }
+
+    public long perft(Board board, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        ensureMoveLists(depth);
+        return perft(board, depth, depth);
+    }
+
+    private long perft(Board board, int depth, int ply) {
+        MoveList moves = moveLists[ply];
+        moveValidator.generateLegalMoves(board, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1, ply - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // Node counts below each root move, for bisecting a mismatch against another engine
+    public Map<String, Long> divide(Board board, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        MoveList moves = new MoveList();
+        moveValidator.generateLegalMoves(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            counts.put(PackedMove.toAlgebraic(moves.get(i)), perft(board, depth - 1));
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    private void ensureMoveLists(int depth) {
+        if (moveLists.length <= depth) {
+            MoveList[] lists = new MoveList[depth + 1];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = i < moveLists.length ? moveLists[i] : new MoveList();
+            }
+            moveLists = lists;
+        }
+    }
+
+    public PerftResult run(String fen, int depth) {
+        Board board = Board.fromFEN(fen);
+        long start = System.nanoTime();
+        long nodes = perft(board, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        Perft perft = new Perft();
+        boolean divide = false;
+        Integer depth = null;
+        String fen = null;
+        for (String arg : args) {
+            if (arg.equals("--divide")) {
+                divide = true;
+            } else if (depth == null && arg.matches("\\d+")) {
+                depth = Integer.parseInt(arg);
+            } else {
+                fen = fen == null ? arg : fen + " " + arg;
+            }
+        }
+
+        if (fen != null) {
+            int searchDepth = depth != null ? depth : 5;
+            if (divide) {
+                Board board = Board.fromFEN(fen);
+                long total = 0;
+                for (Map.Entry<String, Long> entry : perft.divide(board, searchDepth).entrySet()) {
+                    System.out.println(entry.getKey() + ": " + entry.getValue());
+                    total += entry.getValue();
+                }
+                System.out.println("total: " + total);
+            } else {
+                System.out.println(perft.run(fen, searchDepth));
+            }
+            return;
+        }
+
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (PerftPosition position : PerftPosition.REFERENCE) {
+            int searchDepth = depth != null ? Math.min(depth, position.getMaxDepth()) : position.getMaxDepth();
+            PerftResult result = perft.run(position.getFen(), searchDepth);
+            boolean passed = result.getNodes() == position.getExpectedNodes(searchDepth);
+            allPassed &= passed;
+            totalNodes += result.getNodes();
+            totalNanos += result.getElapsedNanos();
+            System.out.println((passed ? "ok   " : "FAIL ") + position.getName() + " " + result
+                    + (passed ? "" : " expected " + position.getExpectedNodes(searchDepth)));
+        }
+        System.out.printf("total: %,d nodes in %.1f ms (%,d nps)%n", totalNodes, totalNanos / 1_000_000.0,
+                new PerftResult(0, totalNodes, totalNanos).getNodesPerSecond());
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.IgKnight.chess.perft;
+
+import java.util.List;
+
+public class PerftPosition {
+
+    // Node counts per depth, starting at depth 1
+    public static final List<PerftPosition> REFERENCE = List.of(
+        new PerftPosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            20, 400, 8902, 197281, 4865609),
+        new PerftPosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2039, 97862, 4085603),
+        new PerftPosition("en-passant-pins", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2812, 43238, 674624),
+        new PerftPosition("promotions", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9467, 422333),
+        new PerftPosition("promotion-checks", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1486, 62379, 2103487),
+        new PerftPosition("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2079, 89890, 3894594),
+        new PerftPosition("en-passant-discovered-check", "8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 1",
+            6),
+        new PerftPosition("en-passant-diagonal-pin", "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1",
+            15, 126, 1928),
+        new PerftPosition("en-passant-into-check", "8/5bk1/8/2Pp4/8/1K6/8/8 w - d6 0 1",
+            8, 104, 736),
+        new PerftPosition("promotion-out-of-check", "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1",
+            11, 133, 1442),
+        new PerftPosition("underpromotion", "4k3/1P6/8/8/8/8/K7/8 w - - 0 1",
+            9, 40, 472)
+    );
+
+    private final String name;
+    private final String fen;
+    private final long[] expectedNodes;
+
+    public PerftPosition(String name, String fen, long... expectedNodes) {
+        this.name = name;
+        this.fen = fen;
+        this.expectedNodes = expectedNodes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    public int getMaxDepth() {
+        return expectedNodes.length;
+    }
+
+    public long getExpectedNodes(int depth) {
+        return expectedNodes[depth - 1];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
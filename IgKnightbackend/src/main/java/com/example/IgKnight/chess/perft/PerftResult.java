@@ -0,0 +1,35 @@
+package com.example.IgKnight.chess.perft;
+
+public class PerftResult {
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public PerftResult(int depth, long nodes, long elapsedNanos) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos > 0 ? (long) (nodes * 1_000_000_000.0 / elapsedNanos) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d: %,d nodes in %.1f ms (%,d nps)",
+                depth, nodes, elapsedNanos / 1_000_000.0, getNodesPerSecond());
+    }
+}
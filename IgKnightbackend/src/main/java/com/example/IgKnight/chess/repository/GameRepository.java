@@ -17,6 +17,9 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("SELECT g FROM Game g WHERE g.status = :status")
     List<Game> findByStatus(@Param("status") GameStatus status);
 
+    @Query("SELECT g FROM Game g WHERE g.status IN (:statuses)")
+    List<Game> findByStatusIn(@Param("statuses") List<GameStatus> statuses);
+
     @Query("SELECT g FROM Game g WHERE (g.whitePlayer.id = :userId OR g.blackPlayer.id = :userId) " +
            "AND g.status IN (:statuses) ORDER BY g.updatedAt DESC")
     List<Game> findActiveGamesByUserId(@Param("userId") Long userId, @Param("statuses") List<GameStatus> statuses);
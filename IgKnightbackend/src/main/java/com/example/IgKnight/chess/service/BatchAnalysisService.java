@@ -0,0 +1,92 @@
+package com.example.IgKnight.chess.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.PositionAnalysis;
+import com.example.IgKnight.chess.perft.ParallelPerft;
+
+import jakarta.annotation.PreDestroy;
+
+// CPU-bound analysis over many positions, split across a dedicated ForkJoinPool so batch jobs
+// neither queue behind nor starve the common pool used by request handling
+@Service
+public class BatchAnalysisService {
+
+    // Positions per task once a batch has been split far enough; analysing one takes microseconds
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private final GameStateService gameStateService;
+    private final ForkJoinPool pool;
+    private final ParallelPerft parallelPerft;
+
+    public BatchAnalysisService(GameStateService gameStateService,
+                                MoveValidator moveValidator,
+                                @Value("${chess.batch-analysis.parallelism:0}") int parallelism) {
+        this.gameStateService = gameStateService;
+        // 0 means one worker per available core
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.parallelPerft = new ParallelPerft(pool, moveValidator);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Results line up with the input. Each board is analysed by exactly one worker, so the list must
+    // not hold the same Board instance twice.
+    public List<PositionAnalysis> analyzeAll(List<Board> boards) {
+        Board[] positions = boards.toArray(new Board[0]);
+        PositionAnalysis[] results = new PositionAnalysis[positions.length];
+        pool.invoke(new AnalyzeTask(positions, results, 0, positions.length));
+        return Arrays.asList(results);
+    }
+
+    public long perft(Board board, int depth) {
+        return parallelPerft.perft(board, depth);
+    }
+
+    public Map<String, Long> divide(Board board, int depth) {
+        return parallelPerft.divide(board, depth);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @SuppressWarnings("serial")
+    private class AnalyzeTask extends RecursiveAction {
+        private final Board[] boards;
+        private final PositionAnalysis[] results;
+        private final int start;
+        private final int end;
+
+        AnalyzeTask(Board[] boards, PositionAnalysis[] results, int start, int end) {
+            this.boards = boards;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SEQUENTIAL_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    results[i] = gameStateService.analyze(boards[i]);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new AnalyzeTask(boards, results, start, middle),
+                      new AnalyzeTask(boards, results, middle, end));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.IgKnight.chess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.IgKnight.chess.dto.MakeMoveRequest;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.Position;
+
+// Plays the bot's reply after the opponent's move has been committed. The book lookup or search
+// runs on the bot pool, off the request thread, and the chosen move goes through GameService.makeMove like any
+// player's, so validation, clocks and notifications are shared.
+@Component
+public class BotMoveListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BotMoveListener.class);
+
+    private final BotService botService;
+    private final GameService gameService;
+
+    public BotMoveListener(BotService botService, GameService gameService) {
+        this.botService = botService;
+        this.gameService = gameService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBotTurn(BotTurnEvent event) {
+        botService.chooseMoveAsync(event.getBoard(), event.getLevel())
+                .thenAccept(move -> {
+                    if (move == PackedMove.NONE) {
+                        return;
+                    }
+                    MakeMoveRequest request = new MakeMoveRequest();
+                    request.setFrom(Position.of(PackedMove.from(move)).toAlgebraic());
+                    request.setTo(Position.of(PackedMove.to(move)).toAlgebraic());
+                    if (PackedMove.isPromotion(move)) {
+                        request.setPromotion(PackedMove.promotion(move).getNotation());
+                    }
+                    gameService.makeMove(event.getGameId(), event.getBotUserId(), request);
+                })
+                .exceptionally(e -> {
+                    // Typically the game ended (resignation, timeout) while the bot was thinking
+                    log.warn("Bot move for game {} not played: {}", event.getGameId(), e.getMessage(), e);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.IgKnight.chess.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.nnue.NnueEvaluator;
+import com.example.IgKnight.chess.engine.nnue.NnueNetwork;
+import com.example.IgKnight.chess.engine.search.Evaluator;
+import com.example.IgKnight.chess.engine.search.HandcraftedEvaluator;
+import com.example.IgKnight.chess.engine.search.LazySmpSearch;
+import com.example.IgKnight.chess.engine.search.Search;
+import com.example.IgKnight.chess.engine.search.SearchLimits;
+import com.example.IgKnight.chess.engine.search.SearchResult;
+import com.example.IgKnight.entity.User;
+import com.example.IgKnight.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Runs the in-process search for bot games and analysis. Bot moves run on a small fixed pool, each
+// worker thread keeping its own Search and transposition table, so memory stays bounded no matter
+// how many games are waiting on the bot. Analysis uses one Lazy SMP search with a larger shared
+// table, taking as many threads as each request asks for up to the configured maximum.
+@Service
+public class BotService {
+
+    public static final String BOT_USERNAME = "IgKnightBot";
+    public static final int MIN_LEVEL = 1;
+    public static final int MAX_LEVEL = 10;
+
+    private static final Logger log = LoggerFactory.getLogger(BotService.class);
+
+    private static final String BOT_EMAIL = "bot@igknight.local";
+    private static final String BOT_PROVIDER = "bot";
+
+    private final UserRepository userRepository;
+    private final OpeningBookService openingBookService;
+    private final ExecutorService executor;
+    private final ThreadLocal<Search> searches;
+    private final long moveTimeMillis;
+    private final LazySmpSearch analysisSearch;
+    private final int defaultAnalysisDepth;
+    private final int maxAnalysisDepth;
+    private final long defaultAnalysisTimeMillis;
+    private final long maxAnalysisTimeMillis;
+    private final int defaultAnalysisThreads;
+
+    public BotService(UserRepository userRepository,
+                      OpeningBookService openingBookService,
+                      @Value("${chess.bot.threads:2}") int threads,
+                      @Value("${chess.bot.hash-size-mb:16}") int hashSizeMb,
+                      @Value("${chess.bot.move-time-ms:1000}") long moveTimeMillis,
+                      @Value("${chess.eval.pawn-hash-size-mb:2}") int pawnHashSizeMb,
+                      @Value("${chess.eval.nnue-file:}") String nnueFile,
+                      @Value("${chess.analysis.default-depth:20}") int defaultAnalysisDepth,
+                      @Value("${chess.analysis.max-depth:30}") int maxAnalysisDepth,
+                      @Value("${chess.analysis.default-time-ms:2000}") long defaultAnalysisTimeMillis,
+                      @Value("${chess.analysis.max-time-ms:10000}") long maxAnalysisTimeMillis,
+                      @Value("${chess.analysis.default-threads:1}") int defaultAnalysisThreads,
+                      @Value("${chess.analysis.max-threads:2}") int maxAnalysisThreads,
+                      @Value("${chess.analysis.hash-size-mb:64}") int analysisHashSizeMb) {
+        this.userRepository = userRepository;
+        this.openingBookService = openingBookService;
+        this.executor = Executors.newFixedThreadPool(threads);
+        // One evaluator for bot and analysis searches alike; NNUE only when weights are configured
+        Evaluator evaluator = nnueFile.isBlank() ? new HandcraftedEvaluator(pawnHashSizeMb) : loadNnue(nnueFile);
+        this.searches = ThreadLocal.withInitial(() -> new Search(evaluator, hashSizeMb));
+        this.moveTimeMillis = moveTimeMillis;
+        // Never more helpers than cores, whatever is configured
+        int analysisThreads = Math.max(1, Math.min(maxAnalysisThreads, Runtime.getRuntime().availableProcessors()));
+        this.analysisSearch = new LazySmpSearch(evaluator, analysisHashSizeMb, analysisThreads);
+        this.maxAnalysisDepth = Math.max(1, maxAnalysisDepth);
+        this.defaultAnalysisDepth = Math.max(1, Math.min(defaultAnalysisDepth, this.maxAnalysisDepth));
+        this.maxAnalysisTimeMillis = Math.max(1, maxAnalysisTimeMillis);
+        this.defaultAnalysisTimeMillis = Math.max(1, Math.min(defaultAnalysisTimeMillis, this.maxAnalysisTimeMillis));
+        this.defaultAnalysisThreads = Math.max(1, Math.min(defaultAnalysisThreads, analysisThreads));
+    }
+
+    private static Evaluator loadNnue(String file) {
+        try {
+            NnueEvaluator evaluator = new NnueEvaluator(NnueNetwork.load(Path.of(file)));
+            log.info("Loaded NNUE weights from {} ({})", file, evaluator.isVectorized() ? "Vector API" : "scalar");
+            return evaluator;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read NNUE weights from " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Two plies per level, and up to a tenth of the configured move time per level
+    public SearchLimits limitsForLevel(int level) {
+        int clamped = Math.max(MIN_LEVEL, Math.min(level, MAX_LEVEL));
+        return new SearchLimits(clamped * 2, moveTimeMillis * clamped / MAX_LEVEL, 0);
+    }
+
+    // The board is copied before the search starts, so callers may keep using it
+    public CompletableFuture<SearchResult> searchAsync(Board board, SearchLimits limits) {
+        Board position = board.copy();
+        return CompletableFuture.supplyAsync(() -> searches.get().search(position, limits), executor);
+    }
+
+    // The bot's move at this level: a weighted pick from the opening book while the game is in
+    // book, otherwise the best move found by searching; PackedMove.NONE if there is no legal move
+    public CompletableFuture<Integer> chooseMoveAsync(Board board, int level) {
+        Board position = board.copy();
+        SearchLimits limits = limitsForLevel(level);
+        return CompletableFuture.supplyAsync(() -> {
+            int bookMove = openingBookService.pickMove(position);
+            return bookMove != PackedMove.NONE ? bookMove : searches.get().search(position, limits).getBestMove();
+        }, executor);
+    }
+
+    public SearchResult search(Board board, SearchLimits limits) {
+        try {
+            return searchAsync(board, limits).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Search interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Search failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Runs on the calling thread plus helpers; analyses queue behind each other rather than
+    // splitting the cores between them. A depth or time of 0 takes the configured default, and
+    // both are capped by the configured maximum.
+    public SearchResult analyze(Board board, int depth, long timeMillis, int threads) {
+        int maxDepth = depth > 0 ? Math.min(depth, maxAnalysisDepth) : defaultAnalysisDepth;
+        long time = timeMillis > 0 ? Math.min(timeMillis, maxAnalysisTimeMillis) : defaultAnalysisTimeMillis;
+        return analysisSearch.search(board.copy(), new SearchLimits(maxDepth, time, 0), analysisThreads(threads));
+    }
+
+    // 0 takes the configured default; never more than chess.analysis.max-threads
+    public int analysisThreads(int requested) {
+        return requested > 0 ? Math.min(requested, analysisSearch.getMaxThreads()) : defaultAnalysisThreads;
+    }
+
+    // The account bot games are played under; it has no password, so nobody can log in as it.
+    // Found by its provider, which no sign-up path can set, rather than by its public username.
+    public synchronized User getBotUser() {
+        return userRepository.findFirstByProviderOrderByIdAsc(BOT_PROVIDER).orElseGet(() -> {
+            if (userRepository.existsByUsername(BOT_USERNAME)) {
+                throw new RuntimeException("Username " + BOT_USERNAME + " is taken by a player account");
+            }
+            User bot = new User(BOT_USERNAME, BOT_EMAIL, null, "N/A");
+            bot.setProvider(BOT_PROVIDER);
+            return userRepository.save(bot);
+        });
+    }
+
+    // Usernames compare case-insensitively in the database, so no casing of the bot's name is allowed
+    public static boolean isReservedUsername(String username) {
+        return BOT_USERNAME.equalsIgnoreCase(username);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        analysisSearch.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.IgKnight.chess.service;
+
+import com.example.IgKnight.chess.engine.Board;
+
+// Published when a move leaves a bot to play; handled once the move's transaction has committed
+public class BotTurnEvent {
+    private final Long gameId;
+    private final Long botUserId;
+    private final int level;
+    private final Board board;
+
+    public BotTurnEvent(Long gameId, Long botUserId, int level, Board board) {
+        this.gameId = gameId;
+        this.botUserId = botUserId;
+        this.level = level;
+        this.board = board;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getBotUserId() {
+        return botUserId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    // The position to search, with its repetition history
+    public Board getBoard() {
+        return board;
+    }
+}
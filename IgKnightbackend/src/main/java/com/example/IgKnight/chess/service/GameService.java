@@ -4,25 +4,37 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.IgKnight.chess.dto.AnalysisResponse;
 import com.example.IgKnight.chess.dto.CreateGameRequest;
 import com.example.IgKnight.chess.dto.GameResponse;
+import com.example.IgKnight.chess.dto.LegalMoveMapResponse;
 import com.example.IgKnight.chess.dto.LegalMovesResponse;
 import com.example.IgKnight.chess.dto.MakeMoveRequest;
 import com.example.IgKnight.chess.engine.Board;
 import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.Fen;
 import com.example.IgKnight.chess.engine.GameStatus;
+import com.example.IgKnight.chess.engine.LegalMoveMap;
 import com.example.IgKnight.chess.engine.Move;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PackedPosition;
 import com.example.IgKnight.chess.engine.Piece;
 import com.example.IgKnight.chess.engine.PieceType;
 import com.example.IgKnight.chess.engine.Position;
+import com.example.IgKnight.chess.engine.PositionAnalysis;
+import com.example.IgKnight.chess.engine.San;
+import com.example.IgKnight.chess.engine.search.SearchResult;
 import com.example.IgKnight.chess.entity.Game;
 import com.example.IgKnight.chess.entity.GameMove;
 import com.example.IgKnight.chess.repository.GameMoveRepository;
@@ -41,7 +53,13 @@ public class GameService {
     private final MoveValidator moveValidator;
     private final MoveGenerator moveGenerator;
     private final GameStateService gameStateService;
+    private final LegalMoveCache legalMoveCache;
+    private final BatchAnalysisService batchAnalysisService;
+    private final BotService botService;
+    private final OpeningBookService openingBookService;
     private final GameWebSocketService webSocketService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean binaryPositionStorage;
 
     public GameService(GameRepository gameRepository,
                       GameMoveRepository gameMoveRepository,
@@ -49,14 +67,26 @@ public class GameService {
                       MoveValidator moveValidator,
                       MoveGenerator moveGenerator,
                       GameStateService gameStateService,
-                      GameWebSocketService webSocketService) {
+                      LegalMoveCache legalMoveCache,
+                      BatchAnalysisService batchAnalysisService,
+                      BotService botService,
+                      OpeningBookService openingBookService,
+                      GameWebSocketService webSocketService,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${chess.position-storage.binary:false}") boolean binaryPositionStorage) {
         this.gameRepository = gameRepository;
         this.gameMoveRepository = gameMoveRepository;
         this.userRepository = userRepository;
         this.moveValidator = moveValidator;
         this.moveGenerator = moveGenerator;
         this.gameStateService = gameStateService;
+        this.legalMoveCache = legalMoveCache;
+        this.batchAnalysisService = batchAnalysisService;
+        this.botService = botService;
+        this.openingBookService = openingBookService;
         this.webSocketService = webSocketService;
+        this.eventPublisher = eventPublisher;
+        this.binaryPositionStorage = binaryPositionStorage;
     }
 
     @Transactional
@@ -71,6 +101,10 @@ public class GameService {
             throw new ResourceAlreadyExistsException("You already have an active game");
         }
 
+        if (request.getBotLevel() != null) {
+            return createBotGame(user, request);
+        }
+
         // Try to find a waiting game created by another user with matching time control (matchmaking)
         Optional<Game> waitingGame;
         
@@ -111,6 +145,27 @@ public class GameService {
         return mapToGameResponse(game);
     }
 
+    // Bot games skip matchmaking and start at once, with the player as white
+    private GameResponse createBotGame(User user, CreateGameRequest request) {
+        int level = request.getBotLevel();
+        if (level < BotService.MIN_LEVEL || level > BotService.MAX_LEVEL) {
+            throw new RuntimeException("Bot level must be between " + BotService.MIN_LEVEL + " and " + BotService.MAX_LEVEL);
+        }
+
+        Game game = new Game(user);
+        game.setBlackPlayer(botService.getBotUser());
+        game.setBotLevel(level);
+        if (request.getTimeControl() != null) {
+            game.setTimeControl(request.getTimeControl());
+            game.setTimeIncrement(request.getTimeIncrement() != null ? request.getTimeIncrement() : 0);
+            game.setLastMoveAt(LocalDateTime.now());
+        }
+        game.setStatus(GameStatus.IN_PROGRESS);
+
+        game = gameRepository.save(game);
+        return mapToGameResponse(game);
+    }
+
     @Transactional
     public GameResponse joinGame(Long gameId, Long userId) {
         Game game = gameRepository.findById(gameId)
@@ -136,12 +191,13 @@ public class GameService {
         }
         game = gameRepository.save(game);
 
-        // Notify both players that the game has started
+        // Notify both players that the game has started, with white's legal moves up front
         GameResponse gameResponse = mapToGameResponse(game);
         webSocketService.notifyGameStart(gameId, java.util.Map.of(
             "gameId", gameId,
             "status", "IN_PROGRESS",
-            "game", gameResponse
+            "game", gameResponse,
+            "legalMoves", mapToLegalMoveMapResponse(loadBoard(game))
         ));
         webSocketService.notifyGameUpdate(gameId, gameResponse);
 
@@ -162,7 +218,7 @@ public class GameService {
         }
 
         Color playerColor = game.getPlayerColor(userId);
-        Board board = Board.fromFEN(game.getFenPosition());
+        Board board = loadBoardWithHistory(game);
 
         if (board.getCurrentTurn() != playerColor) {
             throw new RuntimeException("It's not your turn");
@@ -190,29 +246,31 @@ public class GameService {
             promotion = PieceType.fromNotation(request.getPromotion());
         }
 
-        Move move = new Move(from, to, promotion);
-
-        // Validate move
-        if (!moveValidator.validateMove(board, move)) {
+        // Validate move; the resolved move carries the capture, castling and en passant flags
+        Move move = moveValidator.resolveMove(board, new Move(from, to, promotion));
+        if (move == null) {
             throw new RuntimeException("Invalid move");
         }
 
-        // Get piece before making move
+        // Get piece and notation before making move; SAN reuses the position's cached legal moves,
+        // which the previous move seeded below
         Piece piece = board.getPiece(from);
-        boolean wasCapture = board.getPiece(to) != null || move.isEnPassant();
-
-        // Snapshot board for SAN generation
-        Board boardBeforeMove = board.copy();
+        boolean wasCapture = move.isCapture();
+        String san = San.format(board, PackedMove.encode(move), legalMoveCache.get(board));
 
         // Execute move
         moveValidator.executeMove(board, move);
 
         // Update game state
-        game.setFenPosition(board.toFEN());
+        storePosition(game, board);
         game.setCurrentTurn(board.getCurrentTurn());
 
-        // Check game status
-        GameStatus newStatus = gameStateService.determineGameStatus(board);
+        // One move generation for the new position answers the status, check for the move record
+        // and the opponent's legal move map, and seeds the cache for their SAN and move requests
+        PositionAnalysis analysis = gameStateService.analyzeWithLegalMoves(board);
+        LegalMoveMap legalMoves = LegalMoveMap.of(analysis.getLegalMoves());
+        legalMoveCache.put(board, legalMoves);
+        GameStatus newStatus = analysis.getStatus();
         if (newStatus != GameStatus.IN_PROGRESS) {
             game.setStatus(newStatus);
             if (newStatus == GameStatus.CHECKMATE) {
@@ -246,17 +304,18 @@ public class GameService {
         gameMove.setIsCapture(wasCapture);
         gameMove.setIsCastling(move.isCastling());
         gameMove.setIsEnPassant(move.isEnPassant());
-        boolean isCheck = moveValidator.isKingInCheck(board, board.getCurrentTurn());
+        boolean isCheck = analysis.isInCheck();
         gameMove.setIsCheck(isCheck);
         gameMove.setIsCheckmate(newStatus == GameStatus.CHECKMATE);
-        gameMove.setFenAfterMove(board.toFEN());
-        gameMove.setSanNotation(buildSanNotation(boardBeforeMove, move, wasCapture, isCheck, newStatus == GameStatus.CHECKMATE));
+        storePosition(gameMove, board);
+        gameMove.setPositionKey(board.getZobristKey());
+        gameMove.setSanNotation(san);
 
         gameMoveRepository.save(gameMove);
         game = gameRepository.save(game);
 
         // Send WebSocket notifications
-        GameResponse gameResponse = mapToGameResponse(game);
+        GameResponse gameResponse = mapToGameResponse(game, isCheck);
 
         // Compact move payload for faster client updates
         Map<String, Object> movePayload = new HashMap<>();
@@ -271,20 +330,26 @@ public class GameService {
             }
             movePayload.put("san", fallbackSan);
         }
-        movePayload.put("fenAfterMove", gameMove.getFenAfterMove());
+        movePayload.put("fenAfterMove", game.getFenPosition());
         movePayload.put("whiteTimeRemaining", game.getWhiteTimeRemaining());
         movePayload.put("blackTimeRemaining", game.getBlackTimeRemaining());
         movePayload.put("status", game.getStatus().toString());
         movePayload.put("currentTurn", game.getCurrentTurn().toString());
         movePayload.put("isCheck", isCheck);
         movePayload.put("isCheckmate", newStatus == GameStatus.CHECKMATE);
+        // The opponent's full move map, so clients can highlight moves without a request per square
+        movePayload.put("legalMoves", mapToLegalMoveMapResponse(board, legalMoves));
 
-        webSocketService.notifyGameUpdate(gameId, gameResponse);
+        // Move first, so clients hold the new legal move map by the time the game update lands
         webSocketService.notifyPlayerMove(gameId, movePayload);
+        webSocketService.notifyGameUpdate(gameId, gameResponse);
         
         // If game ended, notify
         if (newStatus != GameStatus.IN_PROGRESS) {
             webSocketService.notifyGameEnd(gameId, gameResponse);
+        } else if (game.isBotGame() && game.getPlayerColor(userId) == Color.WHITE) {
+            // The bot replies once this move is committed
+            eventPublisher.publishEvent(new BotTurnEvent(gameId, game.getBlackPlayer().getId(), game.getBotLevel(), board));
         }
 
         return gameResponse;
@@ -315,15 +380,62 @@ public class GameService {
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
 
-        Board board = Board.fromFEN(game.getFenPosition());
+        Board board = loadBoard(game);
         Position position = Position.fromAlgebraic(square);
 
-        List<Move> legalMoves = moveValidator.generateLegalMovesForPiece(board, position);
-        List<String> moveStrings = legalMoves.stream()
-                .map(move -> move.getTo().toAlgebraic())
-                .collect(Collectors.toList());
+        // Every square of a position is answered from one cached generation
+        long destinations = legalMoveCache.get(board).getDestinations(position.getIndex());
+        return new LegalMovesResponse(square, toSquareNames(destinations));
+    }
+
+    public LegalMoveMapResponse getLegalMoveMap(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        return mapToLegalMoveMapResponse(loadBoard(game));
+    }
 
-        return new LegalMovesResponse(square, moveStrings);
+    // Searches the current position; depth, time and thread count come from the request and are
+    // capped by BotService. Positions in the opening book are answered from it without searching.
+    public AnalysisResponse analyzeGame(Long gameId, int depth, long timeMillis, int threads) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // Engine help during play would be cheating, for the players and for anyone relaying to them
+        if (game.getStatus() == GameStatus.IN_PROGRESS) {
+            throw new RuntimeException("Games in progress cannot be analyzed");
+        }
+        Board board = loadBoardWithHistory(game);
+
+        int bookMove = openingBookService.bestMove(board);
+        if (bookMove != PackedMove.NONE) {
+            AnalysisResponse response = new AnalysisResponse();
+            response.setFen(board.toFEN());
+            response.setBestMove(PackedMove.toAlgebraic(bookMove));
+            response.setPrincipalVariation(List.of(response.getBestMove()));
+            response.setFromBook(true);
+            return response;
+        }
+
+        int threadCount = botService.analysisThreads(threads);
+        SearchResult result = botService.analyze(board, depth, timeMillis, threadCount);
+
+        AnalysisResponse response = new AnalysisResponse();
+        response.setFen(board.toFEN());
+        response.setBestMove(result.getBestMove() != PackedMove.NONE ? PackedMove.toAlgebraic(result.getBestMove()) : null);
+        response.setScore(result.getScore());
+        response.setMateScore(result.isMateScore());
+        response.setDepth(result.getDepth());
+        response.setNodes(result.getNodes());
+        response.setNodesPerSecond(result.getNodesPerSecond());
+        response.setThreads(threadCount);
+        response.setPrincipalVariation(result.getPrincipalVariationAlgebraic());
+        return response;
+    }
+
+    // The current position in the 32-byte PackedPosition format, for clients that want a binary wire format
+    public byte[] getPackedPosition(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        return PackedPosition.encode(loadBoard(game));
     }
 
     @Transactional
@@ -356,6 +468,93 @@ public class GameService {
         return mapToGameResponse(game);
     }
 
+    // Re-derives the status of every in-progress game from its stored position and move history,
+    // for example after a rules fix, notifies the players of each game that turned out to be finished
+    // and returns how many there were. Boards are loaded here inside the transaction; only the
+    // analysis itself runs on the worker threads.
+    @Transactional
+    public int recomputeGameStatuses() {
+        List<Game> games = gameRepository.findByStatus(GameStatus.IN_PROGRESS);
+        List<Board> boards = new ArrayList<>(games.size());
+        for (Game game : games) {
+            boards.add(loadBoardWithHistory(game));
+        }
+
+        List<PositionAnalysis> analyses = batchAnalysisService.analyzeAll(boards);
+        int updated = 0;
+        for (int i = 0; i < games.size(); i++) {
+            PositionAnalysis analysis = analyses.get(i);
+            if (analysis.getStatus() == GameStatus.IN_PROGRESS) {
+                continue;
+            }
+            Game game = games.get(i);
+            game.setStatus(analysis.getStatus());
+            if (analysis.isCheckmate()) {
+                // The side to move is the one mated
+                User winner = analysis.getSideToMove() == Color.WHITE ? game.getBlackPlayer() : game.getWhitePlayer();
+                game.setWinnerId(winner != null ? winner.getId() : null);
+            }
+            game = gameRepository.save(game);
+            updated++;
+
+            // Same notifications makeMove sends when a move ends the game
+            GameResponse gameResponse = mapToGameResponse(game, analysis.isInCheck());
+            webSocketService.notifyGameUpdate(game.getId(), gameResponse);
+            webSocketService.notifyGameEnd(game.getId(), gameResponse);
+        }
+        return updated;
+    }
+
+    // Rebuilds the board and replays the keys of earlier positions since the last capture or pawn
+    // move, so threefold repetition is still detected across requests
+    static Board loadBoardWithHistory(Game game) {
+        Board board = loadBoard(game);
+        List<GameMove> moves = game.getMoves();
+        int reversiblePlies = Math.min(board.getHalfMoveClock(), moves.size());
+        for (int i = moves.size() - 1 - reversiblePlies; i < moves.size() - 1; i++) {
+            if (i < 0) {
+                board.addToPositionHistory(new Board().getZobristKey());
+                continue;
+            }
+            GameMove previous = moves.get(i);
+            Long key = previous.getPositionKey();
+            board.addToPositionHistory(key != null ? key : loadBoard(previous).getZobristKey());
+        }
+        return board;
+    }
+
+    private static Board loadBoard(Game game) {
+        return Board.fromFEN(game.getFenPosition());
+    }
+
+    // The packed form decodes without parsing, so it is preferred whenever it was stored
+    private static Board loadBoard(GameMove move) {
+        byte[] position = move.getPositionAfterMove();
+        return position != null ? PackedPosition.decode(position) : Board.fromFEN(move.getFenAfterMove());
+    }
+
+    // Only move rows use the packed format: a game keeps one current position, always as FEN for
+    // responses, while with binary storage on each move keeps the 32-byte packed position instead
+    // of a FEN of up to 100 characters
+    private void storePosition(Game game, Board board) {
+        game.setFenPosition(board.toFEN());
+    }
+
+    private void storePosition(GameMove move, Board board) {
+        if (binaryPositionStorage) {
+            move.setPositionAfterMove(PackedPosition.encode(board));
+        } else {
+            move.setFenAfterMove(board.toFEN());
+        }
+    }
+
+    private String resultingFen(GameMove move) {
+        if (move.getFenAfterMove() == null && move.getPositionAfterMove() != null) {
+            return Fen.format(PackedPosition.decode(move.getPositionAfterMove()));
+        }
+        return move.getFenAfterMove();
+    }
+
     private void ensureClockInitialization(Game game) {
         if (game.getTimeControl() == null) {
             return;
@@ -400,46 +599,39 @@ public class GameService {
         }
     }
 
-    private String buildSanNotation(Board boardBeforeMove, Move move, boolean wasCapture, boolean isCheck, boolean isCheckmate) {
-        Piece movingPiece = boardBeforeMove.getPiece(move.getFrom());
-        if (movingPiece == null) {
-            return move.toAlgebraic();
-        }
-
-        // Castling
-        if (move.isCastling()) {
-            return move.getTo().getFile() == 7 ? "O-O" : "O-O-O";
-        }
-
-        StringBuilder san = new StringBuilder();
-        if (movingPiece.getType() != PieceType.PAWN) {
-            san.append(movingPiece.getType().getNotation());
-        } else if (wasCapture) {
-            // For pawn captures, include file of origin
-            char fileChar = (char) ('a' + move.getFrom().getFile() - 1);
-            san.append(fileChar);
-        }
-
-        if (wasCapture) {
-            san.append('x');
-        }
-
-        san.append(move.getTo().toAlgebraic());
+    private LegalMoveMapResponse mapToLegalMoveMapResponse(Board board) {
+        return mapToLegalMoveMapResponse(board, legalMoveCache.get(board));
+    }
 
-        if (move.isPromotion()) {
-            san.append('=').append(move.getPromotionPiece().getNotation());
+    private LegalMoveMapResponse mapToLegalMoveMapResponse(Board board, LegalMoveMap legalMoves) {
+        Map<String, List<String>> moves = new LinkedHashMap<>();
+        Map<String, List<String>> promotions = new LinkedHashMap<>();
+        for (long origins = legalMoves.getOrigins(); origins != 0; origins &= origins - 1) {
+            int from = Long.numberOfTrailingZeros(origins);
+            String fromSquare = Position.of(from).toAlgebraic();
+            moves.put(fromSquare, toSquareNames(legalMoves.getDestinations(from)));
+            long promotionSquares = legalMoves.getPromotionDestinations(from);
+            if (promotionSquares != 0) {
+                promotions.put(fromSquare, toSquareNames(promotionSquares));
+            }
         }
+        return new LegalMoveMapResponse(board.toFEN(), moves, promotions);
+    }
 
-        if (isCheckmate) {
-            san.append('#');
-        } else if (isCheck) {
-            san.append('+');
+    private List<String> toSquareNames(long squares) {
+        List<String> names = new ArrayList<>(Long.bitCount(squares));
+        for (; squares != 0; squares &= squares - 1) {
+            names.add(Position.of(Long.numberOfTrailingZeros(squares)).toAlgebraic());
         }
-
-        return san.toString();
+        return names;
     }
 
     private GameResponse mapToGameResponse(Game game) {
+        Board board = loadBoard(game);
+        return mapToGameResponse(game, moveValidator.isKingInCheck(board, board.getCurrentTurn()));
+    }
+
+    private GameResponse mapToGameResponse(Game game, boolean isCheck) {
         GameResponse response = new GameResponse();
         response.setId(game.getId());
         
@@ -468,9 +660,7 @@ public class GameService {
         response.setUpdatedAt(game.getUpdatedAt());
         response.setEndedAt(game.getEndedAt());
 
-        // Check if king is in check
-        Board board = Board.fromFEN(game.getFenPosition());
-        response.setIsCheck(moveValidator.isKingInCheck(board, board.getCurrentTurn()));
+        response.setIsCheck(isCheck);
 
         // Map moves
         List<GameResponse.MoveInfo> moveInfos = new ArrayList<>();
@@ -488,7 +678,7 @@ public class GameService {
                 }
             }
             moveInfo.setSan(san);
-            moveInfo.setResultingFen(move.getFenAfterMove());
+            moveInfo.setResultingFen(resultingFen(move));
             moveInfo.setIsCapture(move.getIsCapture());
             moveInfo.setIsCheck(move.getIsCheck());
             moveInfo.setIsCheckmate(move.getIsCheckmate());
@@ -3,7 +3,6 @@ package com.example.IgKnight.chess.service;
 import com.example.IgKnight.chess.engine.*;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -36,8 +35,7 @@ public class GameStateService {
     }
 
     public boolean hasLegalMoves(Board board, Color color) {
-        List<Move> legalMoves = moveValidator.generateLegalMoves(board, color);
-        return !legalMoves.isEmpty();
+        return moveValidator.hasAnyLegalMove(board, color);
     }
 
     public boolean isDrawByFiftyMoveRule(Board board) {
@@ -45,122 +43,59 @@ public class GameStateService {
     }
 
     public boolean isDrawByThreefoldRepetition(Board board) {
-        String currentPosition = board.toFEN().split(" ")[0]; // Only piece placement part
-        return board.countPositionOccurrences(currentPosition) >= 3;
+        return board.countRepetitions() >= 3;
     }
 
     public boolean isDrawByInsufficientMaterial(Board board) {
-        List<Position> whitePieces = board.getAllPiecesPositions(Color.WHITE);
-        List<Position> blackPieces = board.getAllPiecesPositions(Color.BLACK);
-
-        // King vs King
-        if (whitePieces.size() == 1 && blackPieces.size() == 1) {
-            return true;
-        }
-
-        // King and Bishop vs King
-        // King and Knight vs King
-        if (whitePieces.size() == 2 && blackPieces.size() == 1) {
-            Piece piece = findNonKingPiece(board, whitePieces);
-            if (piece != null && (piece.getType() == PieceType.BISHOP || piece.getType() == PieceType.KNIGHT)) {
-                return true;
-            }
-        }
-
-        if (whitePieces.size() == 1 && blackPieces.size() == 2) {
-            Piece piece = findNonKingPiece(board, blackPieces);
-            if (piece != null && (piece.getType() == PieceType.BISHOP || piece.getType() == PieceType.KNIGHT)) {
-                return true;
-            }
-        }
-
-        // King and Bishop vs King and Bishop (same color square)
-        if (whitePieces.size() == 2 && blackPieces.size() == 2) {
-            Piece whitePiece = findNonKingPiece(board, whitePieces);
-            Piece blackPiece = findNonKingPiece(board, blackPieces);
-
-            if (whitePiece != null && blackPiece != null &&
-                whitePiece.getType() == PieceType.BISHOP &&
-                blackPiece.getType() == PieceType.BISHOP) {
-
-                Position whitePos = findPiecePosition(board, whitePieces, PieceType.BISHOP);
-                Position blackPos = findPiecePosition(board, blackPieces, PieceType.BISHOP);
-
-                if (whitePos != null && blackPos != null) {
-                    // Check if bishops are on same color squares
-                    boolean whiteBishopOnLight = (whitePos.getRank() + whitePos.getFile()) % 2 == 0;
-                    boolean blackBishopOnLight = (blackPos.getRank() + blackPos.getFile()) % 2 == 0;
-                    if (whiteBishopOnLight == blackBishopOnLight) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        // Board keeps per-type piece counts, so this needs no scan of the squares
+        return board.isInsufficientMaterial();
     }
 
-    private Piece findNonKingPiece(Board board, List<Position> positions) {
-        for (Position pos : positions) {
-            Piece piece = board.getPiece(pos);
-            if (piece != null && piece.getType() != PieceType.KING) {
-                return piece;
-            }
-        }
-        return null;
+    // Check state, mate/stalemate and draw conditions for the side to move, computed once so
+    // callers can share one result. Only asks whether any legal move exists, which usually
+    // stops after a few candidates.
+    public PositionAnalysis analyze(Board board) {
+        Color currentPlayer = board.getCurrentTurn();
+        return new PositionAnalysis(
+            currentPlayer,
+            moveValidator.isKingInCheck(board, currentPlayer),
+            moveValidator.hasAnyLegalMove(board, currentPlayer),
+            null,
+            isDrawByFiftyMoveRule(board),
+            isDrawByThreefoldRepetition(board),
+            isDrawByInsufficientMaterial(board)
+        );
     }
 
-    private Position findPiecePosition(Board board, List<Position> positions, PieceType type) {
-        for (Position pos : positions) {
-            Piece piece = board.getPiece(pos);
-            if (piece != null && piece.getType() == type) {
-                return pos;
-            }
-        }
-        return null;
+    // Same as analyze, but also generates the full legal move list
+    public PositionAnalysis analyzeWithLegalMoves(Board board) {
+        Color currentPlayer = board.getCurrentTurn();
+        MoveList legalMoves = new MoveList();
+        moveValidator.generateLegalMoves(board, legalMoves);
+        return new PositionAnalysis(
+            currentPlayer,
+            moveValidator.isKingInCheck(board, currentPlayer),
+            !legalMoves.isEmpty(),
+            legalMoves,
+            isDrawByFiftyMoveRule(board),
+            isDrawByThreefoldRepetition(board),
+            isDrawByInsufficientMaterial(board)
+        );
     }
 
     public GameStatus determineGameStatus(Board board) {
-        Color currentPlayer = board.getCurrentTurn();
-
-        // Check for checkmate
-        if (isCheckmate(board, currentPlayer)) {
-            return GameStatus.CHECKMATE;
-        }
-
-        // Check for stalemate
-        if (isStalemate(board, currentPlayer)) {
-            return GameStatus.STALEMATE;
-        }
-
-        // Check for draws
-        if (isDrawByFiftyMoveRule(board)) {
-            return GameStatus.DRAW_FIFTY_MOVE;
-        }
-
-        if (isDrawByThreefoldRepetition(board)) {
-            return GameStatus.DRAW_REPETITION;
-        }
-
-        if (isDrawByInsufficientMaterial(board)) {
-            return GameStatus.DRAW_INSUFFICIENT_MATERIAL;
-        }
-
-        return GameStatus.IN_PROGRESS;
+        return analyze(board).getStatus();
     }
 
     public Map<String, Object> getGameState(Board board) {
-        Color currentPlayer = board.getCurrentTurn();
-        GameStatus status = determineGameStatus(board);
-        boolean isCheck = moveValidator.isKingInCheck(board, currentPlayer);
-        List<Move> legalMoves = moveValidator.generateLegalMoves(board, currentPlayer);
+        PositionAnalysis analysis = analyzeWithLegalMoves(board);
 
         return Map.of(
             "fen", board.toFEN(),
-            "currentTurn", currentPlayer.toString(),
-            "status", status.toString(),
-            "isCheck", isCheck,
-            "legalMovesCount", legalMoves.size(),
+            "currentTurn", analysis.getSideToMove().toString(),
+            "status", analysis.getStatus().toString(),
+            "isCheck", analysis.isInCheck(),
+            "legalMovesCount", analysis.getLegalMoveCount(),
             "halfMoveClock", board.getHalfMoveClock(),
             "fullMoveNumber", board.getFullMoveNumber()
         );
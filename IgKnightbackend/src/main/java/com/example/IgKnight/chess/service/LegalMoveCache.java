@@ -0,0 +1,50 @@
+package com.example.IgKnight.chess.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveMap;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Legal moves per position, keyed by Zobrist key. The key covers pieces, side to move, castling
+// rights and any capturable en passant square, which is exactly what legal moves depend on, so a
+// changed position simply misses and nothing has to be invalidated. Bounded with Caffeine's
+// W-TinyLFU eviction so positions being clicked around in live games stay resident.
+@Service
+public class LegalMoveCache {
+
+    private final MoveValidator moveValidator;
+    private final Cache<Long, LegalMoveMap> cache;
+
+    public LegalMoveCache(MoveValidator moveValidator,
+                          @Value("${chess.legal-move-cache.maximum-size:10000}") long maximumSize) {
+        this.moveValidator = moveValidator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public LegalMoveMap get(Board board) {
+        return cache.get(board.getZobristKey(), key -> {
+            MoveList legalMoves = new MoveList();
+            moveValidator.generateLegalMoves(board, legalMoves);
+            return LegalMoveMap.of(legalMoves);
+        });
+    }
+
+    // Seeds the cache with moves already generated for this position elsewhere
+    public void put(Board board, LegalMoveMap legalMoves) {
+        cache.put(board.getZobristKey(), legalMoves);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.IgKnight.chess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Background jobs that rework stored data in bulk. Each runs on a cron from application.properties;
+// the cron value "-" switches a job off.
+@Component
+public class MaintenanceJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceJobs.class);
+
+    private final OpeningBookService openingBookService;
+    private final GameService gameService;
+
+    public MaintenanceJobs(OpeningBookService openingBookService, GameService gameService) {
+        this.openingBookService = openingBookService;
+        this.gameService = gameService;
+    }
+
+    @Scheduled(cron = "${chess.book.rebuild-cron:0 0 4 * * *}")
+    public void rebuildOpeningBook() {
+        if (!openingBookService.isConfigured()) {
+            return;
+        }
+        try {
+            int positions = openingBookService.rebuildFromHistory();
+            log.info("Rebuilt opening book from finished games: {} positions", positions);
+        } catch (RuntimeException e) {
+            log.error("Opening book rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Finishes games whose position is already over but still marked in progress, e.g. after a
+    // rules fix changed what counts as a draw. Off unless chess.status-recompute-cron is set.
+    @Scheduled(cron = "${chess.status-recompute-cron:-}")
+    public void recomputeGameStatuses() {
+        try {
+            int finished = gameService.recomputeGameStatuses();
+            if (finished > 0) {
+                log.info("Recomputed game statuses: {} games finished", finished);
+            }
+        } catch (RuntimeException e) {
+            log.error("Game status recompute failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.example.IgKnight.chess.engine.Attacks;
+import com.example.IgKnight.chess.engine.Bitboards;
 import com.example.IgKnight.chess.engine.Board;
 import com.example.IgKnight.chess.engine.Color;
 import com.example.IgKnight.chess.engine.Move;
@@ -17,15 +19,14 @@ public class MoveGenerator {
 
     public List<Move> generatePseudoLegalMoves(Board board, Color color) {
         List<Move> moves = new ArrayList<>();
-        List<Position> pieces = board.getAllPiecesPositions(color);
-        
-        for (Position from : pieces) {
-            Piece piece = board.getPiece(from);
-            if (piece != null && piece.getColor() == color) {
-                moves.addAll(generatePseudoLegalMovesForPiece(board, from, piece));
-            }
+        long pieces = board.getPieces(color);
+
+        while (pieces != 0) {
+            int square = Bitboards.lowestSquare(pieces);
+            pieces &= pieces - 1;
+            moves.addAll(generatePseudoLegalMovesForPiece(board, Bitboards.toPosition(square), board.getPiece(square)));
         }
-        
+
         return moves;
     }
 
@@ -69,89 +70,62 @@ public class MoveGenerator {
         }
 
         // Captures
-        for (int fileDelta : new int[]{-1, 1}) {
-            Position capturePos = from.move(direction, fileDelta);
-            if (capturePos != null) {
-                Piece targetPiece = board.getPiece(capturePos);
-                if (targetPiece != null && targetPiece.getColor() != color) {
-                    if (capturePos.getRank() == promotionRank) {
-                        // Capture with promotion
-                        moves.add(new Move(from, capturePos, PieceType.QUEEN, true, false, false));
-                        moves.add(new Move(from, capturePos, PieceType.ROOK, true, false, false));
-                        moves.add(new Move(from, capturePos, PieceType.BISHOP, true, false, false));
-                        moves.add(new Move(from, capturePos, PieceType.KNIGHT, true, false, false));
-                    } else {
-                        moves.add(new Move(from, capturePos, null, true, false, false));
-                    }
-                }
-                // En passant
-                else if (capturePos.equals(board.getEnPassantTarget())) {
-                    moves.add(new Move(from, capturePos, null, true, false, true));
-                }
+        int fromSquare = Bitboards.square(from);
+        long captures = Attacks.pawn(color, fromSquare) & board.getPieces(color.opposite());
+        while (captures != 0) {
+            Position capturePos = Bitboards.toPosition(Bitboards.lowestSquare(captures));
+            captures &= captures - 1;
+            if (capturePos.getRank() == promotionRank) {
+                // Capture with promotion
+                moves.add(new Move(from, capturePos, PieceType.QUEEN, true, false, false));
+                moves.add(new Move(from, capturePos, PieceType.ROOK, true, false, false));
+                moves.add(new Move(from, capturePos, PieceType.BISHOP, true, false, false));
+                moves.add(new Move(from, capturePos, PieceType.KNIGHT, true, false, false));
+            } else {
+                moves.add(new Move(from, capturePos, null, true, false, false));
             }
         }
 
+        // En passant
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare != Board.NO_SQUARE && (Attacks.pawn(color, fromSquare) & Bitboards.bit(enPassantSquare)) != 0) {
+            moves.add(new Move(from, Bitboards.toPosition(enPassantSquare), null, true, false, true));
+        }
+
         return moves;
     }
 
     private List<Move> generateKnightMoves(Board board, Position from, Color color) {
-        List<Move> moves = new ArrayList<>();
-        int[][] knightOffsets = {
-            {2, 1}, {2, -1}, {-2, 1}, {-2, -1},
-            {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
-        };
-
-        for (int[] offset : knightOffsets) {
-            Position to = from.move(offset[0], offset[1]);
-            if (to != null) {
-                Piece targetPiece = board.getPiece(to);
-                if (targetPiece == null) {
-                    moves.add(new Move(from, to));
-                } else if (targetPiece.getColor() != color) {
-                    moves.add(new Move(from, to, null, true, false, false));
-                }
-            }
-        }
-
-        return moves;
+        return generateTargetMoves(board, from, Attacks.knight(Bitboards.square(from)) & ~board.getPieces(color));
     }
 
     private List<Move> generateBishopMoves(Board board, Position from, Color color) {
-        return generateSlidingMoves(board, from, color, new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}});
+        long attacks = Attacks.bishop(Bitboards.square(from), board.getOccupied());
+        return generateTargetMoves(board, from, attacks & ~board.getPieces(color));
     }
 
     private List<Move> generateRookMoves(Board board, Position from, Color color) {
-        return generateSlidingMoves(board, from, color, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
+        long attacks = Attacks.rook(Bitboards.square(from), board.getOccupied());
+        return generateTargetMoves(board, from, attacks & ~board.getPieces(color));
     }
 
     private List<Move> generateQueenMoves(Board board, Position from, Color color) {
-        return generateSlidingMoves(board, from, color, new int[][]{
-            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
-            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        });
+        long attacks = Attacks.queen(Bitboards.square(from), board.getOccupied());
+        return generateTargetMoves(board, from, attacks & ~board.getPieces(color));
     }
 
-    private List<Move> generateSlidingMoves(Board board, Position from, Color color, int[][] directions) {
-        List<Move> moves = new ArrayList<>();
-
-        for (int[] direction : directions) {
-            int rankDelta = direction[0];
-            int fileDelta = direction[1];
-            Position current = from;
-
-            while (true) {
-                current = current.move(rankDelta, fileDelta);
-                if (current == null) break;
+    private List<Move> generateTargetMoves(Board board, Position from, long targets) {
+        List<Move> moves = new ArrayList<>(Bitboards.count(targets) + 2);
+        long occupied = board.getOccupied();
 
-                Piece targetPiece = board.getPiece(current);
-                if (targetPiece == null) {
-                    moves.add(new Move(from, current));
-                } else {
-                    if (targetPiece.getColor() != color) {
-                        moves.add(new Move(from, current, null, true, false, false));
-                    }
-                    break;
-                }
+        while (targets != 0) {
+            int square = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            Position to = Bitboards.toPosition(square);
+            if ((occupied & Bitboards.bit(square)) != 0) {
+                moves.add(new Move(from, to, null, true, false, false));
+            } else {
+                moves.add(new Move(from, to));
             }
         }
 
@@ -159,23 +133,7 @@ public class MoveGenerator {
     }
 
     private List<Move> generateKingMoves(Board board, Position from, Color color) {
-        List<Move> moves = new ArrayList<>();
-        int[][] kingOffsets = {
-            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
-            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-        };
-
-        for (int[] offset : kingOffsets) {
-            Position to = from.move(offset[0], offset[1]);
-            if (to != null) {
-                Piece targetPiece = board.getPiece(to);
-                if (targetPiece == null) {
-                    moves.add(new Move(from, to));
-                } else if (targetPiece.getColor() != color) {
-                    moves.add(new Move(from, to, null, true, false, false));
-                }
-            }
-        }
+        List<Move> moves = generateTargetMoves(board, from, Attacks.king(Bitboards.square(from)) & ~board.getPieces(color));
 
         // Castling
         moves.addAll(generateCastlingMoves(board, from, color));
@@ -195,19 +153,19 @@ public class MoveGenerator {
 
         // Kingside castling
         if (board.canCastleKingside(color)) {
-            Position rookPos = new Position(rank, 8);
+            Position rookPos = Position.of(rank, 8);
             Piece rook = board.getPiece(rookPos);
             if (rook != null && !rook.hasMoved()) {
                 // Check if squares between king and rook are empty
                 boolean pathClear = true;
                 for (int file = 6; file <= 7; file++) {
-                    if (board.getPiece(new Position(rank, file)) != null) {
+                    if (board.getPiece(Position.of(rank, file)) != null) {
                         pathClear = false;
                         break;
                     }
                 }
                 if (pathClear) {
-                    Position kingsideCastlePos = new Position(rank, 7);
+                    Position kingsideCastlePos = Position.of(rank, 7);
                     moves.add(new Move(from, kingsideCastlePos, null, false, true, false));
                 }
             }
@@ -215,19 +173,19 @@ public class MoveGenerator {
 
         // Queenside castling
         if (board.canCastleQueenside(color)) {
-            Position rookPos = new Position(rank, 1);
+            Position rookPos = Position.of(rank, 1);
             Piece rook = board.getPiece(rookPos);
             if (rook != null && !rook.hasMoved()) {
                 // Check if squares between king and rook are empty
                 boolean pathClear = true;
                 for (int file = 2; file <= 4; file++) {
-                    if (board.getPiece(new Position(rank, file)) != null) {
+                    if (board.getPiece(Position.of(rank, file)) != null) {
                         pathClear = false;
                         break;
                     }
                 }
                 if (pathClear) {
-                    Position queensideCastlePos = new Position(rank, 3);
+                    Position queensideCastlePos = Position.of(rank, 3);
                     moves.add(new Move(from, queensideCastlePos, null, false, true, false));
                 }
             }
@@ -237,28 +195,6 @@ public class MoveGenerator {
     }
 
     public boolean isSquareAttacked(Board board, Position square, Color byColor) {
-        // Check if the square is attacked by any piece of the given color
-        List<Position> attackerPositions = board.getAllPiecesPositions(byColor);
-        
-        for (Position attackerPos : attackerPositions) {
-            Piece attacker = board.getPiece(attackerPos);
-            if (attacker == null) continue;
-
-            List<Move> attackerMoves = generatePseudoLegalMovesForPiece(board, attackerPos, attacker);
-            for (Move move : attackerMoves) {
-                if (move.getTo().equals(square)) {
-                    // For pawns, only captures can attack a square
-                    if (attacker.getType() == PieceType.PAWN) {
-                        if (move.isCapture() || move.isEnPassant()) {
-                            return true;
-                        }
-                    } else {
-                        return true;
-                    }
-                }
-            }
-        }
-        
-        return false;
+        return board.isSquareAttacked(Bitboards.square(square), byColor);
     }
 }
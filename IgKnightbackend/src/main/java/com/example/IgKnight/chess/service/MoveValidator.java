@@ -1,15 +1,16 @@
 package com.example.IgKnight.chess.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.example.IgKnight.chess.engine.Bitboards;
 import com.example.IgKnight.chess.engine.Board;
 import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
 import com.example.IgKnight.chess.engine.Move;
-import com.example.IgKnight.chess.engine.Piece;
-import com.example.IgKnight.chess.engine.PieceType;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
 import com.example.IgKnight.chess.engine.Position;
 
 @Service
@@ -22,215 +23,87 @@ public class MoveValidator {
     }
 
     public List<Move> generateLegalMoves(Board board, Color color) {
-        List<Move> pseudoLegalMoves = moveGenerator.generatePseudoLegalMoves(board, color);
-        return pseudoLegalMoves.stream()
-                .filter(move -> isMoveLegal(board, move, color))
-                .collect(Collectors.toList());
+        return LegalMoveGenerator.generate(board, color);
     }
 
-    public List<Move> generateLegalMovesForPiece(Board board, Position from) {
-        Piece piece = board.getPiece(from);
-        if (piece == null) {
-            return List.of();
-        }
-
-        List<Move> pseudoLegalMoves = moveGenerator.generatePseudoLegalMovesForPiece(board, from, piece);
-        return pseudoLegalMoves.stream()
-                .filter(move -> isMoveLegal(board, move, piece.getColor()))
-                .collect(Collectors.toList());
+    // Fills a caller-owned buffer with packed moves for the side to move, without allocating
+    public void generateLegalMoves(Board board, MoveList moves) {
+        LegalMoveGenerator.generate(board, moves);
     }
 
-    public boolean isMoveLegal(Board board, Move move, Color color) {
-        // Make the move on a copy of the board
-        Board testBoard = board.copy();
-        executeMove(testBoard, move);
-
-        // Check if the king is in check after the move
-        Position kingPos = testBoard.findKing(color);
-        if (kingPos == null) {
-            return false;
-        }
+    // Short-circuits on the first legal move instead of generating them all
+    public boolean hasAnyLegalMove(Board board, Color color) {
+        return LegalMoveGenerator.hasAnyLegalMove(board, color);
+    }
 
-        return !moveGenerator.isSquareAttacked(testBoard, kingPos, color.opposite());
+    public List<Move> generateLegalMovesForPiece(Board board, Position from) {
+        return LegalMoveGenerator.generateFrom(board, Bitboards.square(from));
     }
 
-    public boolean validateMove(Board board, Move move) {
-        Piece piece = board.getPiece(move.getFrom());
-        if (piece == null) {
+    public boolean isMoveLegal(Board board, Move move, Color color) {
+        // Castling may not start from, pass through or land on an attacked square
+        if (move.isCastling() && !canCastleThrough(board, color, move.getTo().getFile() > move.getFrom().getFile())) {
             return false;
         }
 
-        // Check if it's the correct player's turn
-        if (piece.getColor() != board.getCurrentTurn()) {
-            return false;
+        // Play the move in place and take it back, rather than testing it on a copy
+        board.makeMove(move);
+        try {
+            int kingSquare = board.findKingSquare(color);
+            return kingSquare != Board.NO_SQUARE && !board.isSquareAttacked(kingSquare, color.opposite());
+        } finally {
+            board.unmakeMove();
         }
-
-        // Generate legal moves and check if the move is in the list
-        List<Move> legalMoves = generateLegalMovesForPiece(board, move.getFrom());
-        return legalMoves.stream().anyMatch(legalMove -> 
-            legalMove.getFrom().equals(move.getFrom()) &&
-            legalMove.getTo().equals(move.getTo()) &&
-            (legalMove.getPromotionPiece() == move.getPromotionPiece() ||
-             (legalMove.getPromotionPiece() == null && move.getPromotionPiece() == null))
-        );
     }
 
-    public void executeMove(Board board, Move move) {
-        Piece piece = board.getPiece(move.getFrom());
-        if (piece == null) {
-            return;
-        }
-
-        // Reset en passant target
-        Position previousEnPassant = board.getEnPassantTarget();
-        board.setEnPassantTarget(null);
-
-        // Handle castling
-        if (move.isCastling()) {
-            executeCastling(board, move, piece.getColor());
-            piece.setMoved(true);
-            board.incrementHalfMoveClock();
-        }
-        // Handle en passant capture
-        else if (move.isEnPassant()) {
-            board.removePiece(move.getFrom());
-            board.setPiece(move.getTo(), piece);
-            // Remove the captured pawn
-            int capturedPawnRank = piece.getColor() == Color.WHITE ? move.getTo().getRank() - 1 : move.getTo().getRank() + 1;
-            board.removePiece(new Position(capturedPawnRank, move.getTo().getFile()));
-            piece.setMoved(true);
-            board.resetHalfMoveClock();
-        }
-        // Handle pawn promotion
-        else if (move.isPromotion()) {
-            board.removePiece(move.getFrom());
-            Piece promotedPiece = new Piece(move.getPromotionPiece(), piece.getColor(), true);
-            board.setPiece(move.getTo(), promotedPiece);
-            board.resetHalfMoveClock();
-        }
-        // Regular move
-        else {
-            boolean isCapture = board.getPiece(move.getTo()) != null;
-            boolean isPawnMove = piece.getType() == PieceType.PAWN;
-
-            board.removePiece(move.getFrom());
-            board.setPiece(move.getTo(), piece);
-            piece.setMoved(true);
-
-            // Set en passant target for double pawn move
-            if (isPawnMove && Math.abs(move.getTo().getRank() - move.getFrom().getRank()) == 2) {
-                int enPassantRank = (move.getFrom().getRank() + move.getTo().getRank()) / 2;
-                board.setEnPassantTarget(new Position(enPassantRank, move.getFrom().getFile()));
-            }
-
-            // Update halfmove clock
-            if (isCapture || isPawnMove) {
-                board.resetHalfMoveClock();
-            } else {
-                board.incrementHalfMoveClock();
-            }
-        }
-
-        // Update castling rights
-        updateCastlingRights(board, move, piece);
-
-        // Switch turn
-        board.setCurrentTurn(board.getCurrentTurn().opposite());
-        if (board.getCurrentTurn() == Color.WHITE) {
-            board.incrementFullMoveNumber();
-        }
-
-        // Add position to history for threefold repetition detection
-        board.addToPositionHistory(board.toFEN().split(" ")[0]);
+    public boolean validateMove(Board board, Move move) {
+        return resolveMove(board, move) != null;
     }
 
-    private void executeCastling(Board board, Move move, Color color) {
-        int rank = color.getStartRank();
-        Position kingFrom = move.getFrom();
-        Position kingTo = move.getTo();
-
-        // Move king
-        Piece king = board.getPiece(kingFrom);
-        board.removePiece(kingFrom);
-        board.setPiece(kingTo, king);
-
-        // Move rook
-        if (kingTo.getFile() == 7) { // Kingside
-            Position rookFrom = new Position(rank, 8);
-            Position rookTo = new Position(rank, 6);
-            Piece rook = board.getPiece(rookFrom);
-            board.removePiece(rookFrom);
-            board.setPiece(rookTo, rook);
-            if (rook != null) {
-                rook.setMoved(true);
-            }
-        } else if (kingTo.getFile() == 3) { // Queenside
-            Position rookFrom = new Position(rank, 1);
-            Position rookTo = new Position(rank, 4);
-            Piece rook = board.getPiece(rookFrom);
-            board.removePiece(rookFrom);
-            board.setPiece(rookTo, rook);
-            if (rook != null) {
-                rook.setMoved(true);
-            }
+    // Checks a submitted move directly, without generating the piece's other moves, and returns
+    // it with its capture, castling and en passant flags filled in; null if it is not legal
+    public Move resolveMove(Board board, Move move) {
+        if (move == null || move.getFrom() == null || move.getTo() == null) {
+            return null;
         }
+        int legal = LegalMoveGenerator.legalMove(board, move.getFromSquare(), move.getToSquare(), move.getPromotionPiece());
+        return legal != PackedMove.NONE ? PackedMove.toMove(legal) : null;
     }
 
-    private void updateCastlingRights(Board board, Move move, Piece piece) {
-        Color color = piece.getColor();
-
-        // If king moves, lose all castling rights for that color
-        if (piece.getType() == PieceType.KING) {
-            board.setCastlingRights(color, false, false);
-        }
-
-        // If rook moves from starting position, lose castling right on that side
-        if (piece.getType() == PieceType.ROOK) {
-            int startRank = color.getStartRank();
-            if (move.getFrom().equals(new Position(startRank, 1))) {
-                board.setCastlingRights(color, board.canCastleKingside(color), false);
-            } else if (move.getFrom().equals(new Position(startRank, 8))) {
-                board.setCastlingRights(color, false, board.canCastleQueenside(color));
-            }
+    public void executeMove(Board board, Move move) {
+        if (board.getPiece(move.getFrom()) == null) {
+            return;
         }
 
-        // If rook is captured, opponent loses castling right on that side
-        Color opponentColor = color.opposite();
-        int opponentStartRank = opponentColor.getStartRank();
-        if (move.getTo().equals(new Position(opponentStartRank, 1))) {
-            board.setCastlingRights(opponentColor, board.canCastleKingside(opponentColor), false);
-        } else if (move.getTo().equals(new Position(opponentStartRank, 8))) {
-            board.setCastlingRights(opponentColor, false, board.canCastleQueenside(opponentColor));
-        }
+        // Board records the position key for threefold repetition detection as part of the move
+        board.makeMove(move);
     }
 
     public boolean isKingInCheck(Board board, Color color) {
-        Position kingPos = board.findKing(color);
-        if (kingPos == null) {
+        int kingSquare = board.findKingSquare(color);
+        if (kingSquare == Board.NO_SQUARE) {
             return false;
         }
-        return moveGenerator.isSquareAttacked(board, kingPos, color.opposite());
+        return board.isSquareAttacked(kingSquare, color.opposite());
     }
 
     public boolean canCastleThrough(Board board, Color color, boolean kingside) {
         int rank = color.getStartRank();
-        Position kingPos = board.findKing(color);
-        
-        if (kingPos == null || isKingInCheck(board, color)) {
+        if (board.findKingSquare(color) == Board.NO_SQUARE || isKingInCheck(board, color)) {
             return false;
         }
 
         // Check if squares the king moves through are not under attack
         if (kingside) {
             for (int file = 6; file <= 7; file++) {
-                Position square = new Position(rank, file);
+                Position square = Position.of(rank, file);
                 if (moveGenerator.isSquareAttacked(board, square, color.opposite())) {
                     return false;
                 }
             }
         } else {
             for (int file = 3; file <= 4; file++) {
-                Position square = new Position(rank, file);
+                Position square = Position.of(rank, file);
                 if (moveGenerator.isSquareAttacked(board, square, color.opposite())) {
                     return false;
                 }
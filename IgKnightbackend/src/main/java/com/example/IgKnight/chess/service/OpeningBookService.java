@@ -0,0 +1,138 @@
+package com.example.IgKnight.chess.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.GameStatus;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PieceType;
+import com.example.IgKnight.chess.engine.Position;
+import com.example.IgKnight.chess.engine.book.PolyglotBook;
+import com.example.IgKnight.chess.engine.book.PolyglotBookWriter;
+import com.example.IgKnight.chess.entity.Game;
+import com.example.IgKnight.chess.entity.GameMove;
+import com.example.IgKnight.chess.repository.GameRepository;
+
+// The opening book consulted before bot moves and analysis. One memory-mapped book is shared by
+// every thread; rebuilding it from finished games swaps in a new mapping without blocking lookups.
+@Service
+public class OpeningBookService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningBookService.class);
+
+    // Finished games; a game still in progress has no result to weight its moves by
+    private static final List<GameStatus> FINISHED = List.of(
+            GameStatus.CHECKMATE, GameStatus.RESIGNATION, GameStatus.TIMEOUT, GameStatus.STALEMATE,
+            GameStatus.DRAW_AGREEMENT, GameStatus.DRAW_REPETITION, GameStatus.DRAW_FIFTY_MOVE,
+            GameStatus.DRAW_INSUFFICIENT_MATERIAL);
+
+    private final GameRepository gameRepository;
+    private final Path bookFile;
+    private final int maxPly;
+    private volatile PolyglotBook book;
+
+    public OpeningBookService(GameRepository gameRepository,
+                              @Value("${chess.book.file:}") String bookFile,
+                              @Value("${chess.book.max-ply:20}") int maxPly) {
+        this.gameRepository = gameRepository;
+        this.bookFile = bookFile.isBlank() ? null : Path.of(bookFile);
+        this.maxPly = maxPly;
+        if (this.bookFile != null && Files.exists(this.bookFile)) {
+            this.book = open(this.bookFile);
+            log.info("Opening book {}: {} entries", bookFile, book.size());
+        }
+    }
+
+    // Whether chess.book.file is set, so rebuildFromHistory has somewhere to write
+    public boolean isConfigured() {
+        return bookFile != null;
+    }
+
+    public boolean isLoaded() {
+        return book != null;
+    }
+
+    // Weighted random choice for bot games, so the bot does not always play the same line;
+    // PackedMove.NONE when out of book
+    public int pickMove(Board board) {
+        PolyglotBook current = book;
+        return current != null ? current.pickMove(board) : PackedMove.NONE;
+    }
+
+    // The most played move, for analysis; PackedMove.NONE when out of book
+    public int bestMove(Board board) {
+        PolyglotBook current = book;
+        return current != null ? current.bestMove(board) : PackedMove.NONE;
+    }
+
+    // Builds a book from the first maxPly plies of every finished game, weighting each move 2 for
+    // a win, 1 for a draw and 0 for a loss by the side that played it, writes it to the configured
+    // file and starts using it. Returns the number of positions in the new book.
+    @Transactional(readOnly = true)
+    public int rebuildFromHistory() {
+        if (bookFile == null) {
+            throw new RuntimeException("No opening book file configured (chess.book.file)");
+        }
+        PolyglotBookWriter writer = new PolyglotBookWriter();
+        for (Game game : gameRepository.findByStatusIn(FINISHED)) {
+            addGame(writer, game);
+        }
+        try {
+            writer.write(bookFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write opening book " + bookFile + ": " + e.getMessage(), e);
+        }
+        book = open(bookFile);
+        return writer.positionCount();
+    }
+
+    private void addGame(PolyglotBookWriter writer, Game game) {
+        Long winnerId = game.getWinnerId();
+        int whitePoints = 1;
+        if (winnerId != null) {
+            whitePoints = game.getWhitePlayer() != null && winnerId.equals(game.getWhitePlayer().getId()) ? 2 : 0;
+        }
+
+        Board board = new Board();
+        MoveList legal = new MoveList();
+        List<GameMove> moves = game.getMoves();
+        for (int ply = 0; ply < Math.min(maxPly, moves.size()); ply++) {
+            GameMove gameMove = moves.get(ply);
+            legal.clear();
+            LegalMoveGenerator.generate(board, legal);
+            String promotion = gameMove.getPromotionPiece();
+            int move = legal.find(Position.fromAlgebraic(gameMove.getFromSquare()).getIndex(),
+                    Position.fromAlgebraic(gameMove.getToSquare()).getIndex(),
+                    promotion != null ? PieceType.valueOf(promotion) : null);
+            if (move == PackedMove.NONE) {
+                // Not replayable from the standard start, e.g. a game from a custom position
+                return;
+            }
+            int points = board.getCurrentTurn() == Color.WHITE ? whitePoints : 2 - whitePoints;
+            if (points > 0) {
+                writer.add(board, move, points);
+            }
+            board.makeMove(move);
+        }
+    }
+
+    private static PolyglotBook open(Path path) {
+        try {
+            return PolyglotBook.open(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open opening book " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
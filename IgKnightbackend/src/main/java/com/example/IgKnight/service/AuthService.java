@@ -4,6 +4,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.IgKnight.chess.service.BotService;
 import com.example.IgKnight.dto.AuthResponse;
 import com.example.IgKnight.dto.SignInRequest;
 import com.example.IgKnight.dto.SignUpRequest;
@@ -28,7 +29,8 @@ public class AuthService {
 
     @Transactional
     public AuthResponse signUp(SignUpRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (BotService.isReservedUsername(request.getUsername())
+                || userRepository.existsByUsername(request.getUsername())) {
             throw new ResourceAlreadyExistsException("Username already exists");
         }
 
@@ -5,6 +5,7 @@ import java.util.Optional;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
+import com.example.IgKnight.chess.service.BotService;
 import com.example.IgKnight.entity.User;
 import com.example.IgKnight.repository.UserRepository;
 
@@ -52,7 +53,7 @@ public class OAuth2UserService {
         String username = baseUsername;
         int counter = 1;
         
-        while (userRepository.findByUsername(username).isPresent()) {
+        while (BotService.isReservedUsername(username) || userRepository.findByUsername(username).isPresent()) {
             username = baseUsername + counter;
             counter++;
         }
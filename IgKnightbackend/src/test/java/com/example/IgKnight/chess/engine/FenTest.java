@@ -0,0 +1,115 @@
+package com.example.IgKnight.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class FenTest {
+
+    private static final String KIWIPETE = PerftPosition.REFERENCE.get(1).getFen();
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void formatsWhatItParsed(PerftPosition position) {
+        assertEquals(position.getFen(), Fen.format(Fen.parse(position.getFen())));
+    }
+
+    @Test
+    void clocksAreOptional() {
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", Fen.format(Fen.parse("4k3/8/8/8/8/8/8/4K3 b - -")));
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 7 1", Fen.format(Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 7")));
+    }
+
+    @Test
+    void acceptsExtraSpacesBetweenFields() {
+        assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 3 9", Fen.format(Fen.parse("  4k3/8/8/8/8/8/8/4K3  w -  - 3  9 ")));
+    }
+
+    @Test
+    void acceptsClocksAtTheirLimits() {
+        assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 255 65535", Fen.format(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 255 65535")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "   ",
+        // Piece placement
+        "4k3/8/8/8/8/8/8 w - - 0 1",
+        "4k3/8/8/8/8/8/8/8/4K3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K4 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K2 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K2X w - - 0 1",
+        "4k3/8/8/8/8/8/8/9 w - - 0 1",
+        "4k3//8/8/8/8/8/4K3 w - - 0 1",
+        // Active color
+        "4k3/8/8/8/8/8/8/4K3",
+        "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 W - - 0 1",
+        // Castling rights
+        "4k3/8/8/8/8/8/8/4K3 w",
+        "4k3/8/8/8/8/8/8/4K3 w KX - 0 1",
+        // En passant target
+        "4k3/8/8/8/8/8/8/4K3 w -",
+        "4k3/8/8/8/8/8/8/4K3 w - e",
+        "4k3/8/8/8/8/8/8/4K3 w - i3 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - e9 0 1",
+        // Clocks
+        "4k3/8/8/8/8/8/8/4K3 w - - x 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 y",
+        "4k3/8/8/8/8/8/8/4K3 w - - -1 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 256 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 0",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 65536",
+        "4k3/8/8/8/8/8/8/4K3 w - - 99999999999 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 99999999999",
+        // Anything after the fullmove number
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 1 0",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 1 extra",
+    })
+    void rejectsMalformedFen(String fen) {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen));
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(null));
+    }
+
+    // A rejected FEN leaves a reused board exactly as it was, move history included
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "4k3/8/8/8/8/8/8/4K2X w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - i3 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 256 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - 0 1 extra",
+    })
+    void rejectedFenLeavesBoardUnchanged(String fen) {
+        Board board = Board.fromFEN(KIWIPETE);
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, moves);
+        board.makeMove(moves.get(0));
+        String before = board.toFEN();
+        long key = board.getZobristKey();
+
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen, board));
+
+        assertEquals(before, board.toFEN());
+        assertEquals(key, board.getZobristKey());
+        board.unmakeMove();
+        assertEquals(KIWIPETE, board.toFEN());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.IgKnight.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class LegalMoveGeneratorTest {
+
+    private static final PieceType[] PROMOTIONS = {null, PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+            PieceType.ROOK, PieceType.QUEEN, PieceType.KING};
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Every from/to/promotion combination at the root and one ply below: legalMove must return
+    // exactly the generated move, flags included, and nothing for any other combination
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void legalMoveAcceptsExactlyTheGeneratedMoves(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, moves);
+
+        assertLegalMoveMatches(board, moves, position.getName());
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            MoveList replies = new MoveList();
+            LegalMoveGenerator.generate(board, replies);
+            assertLegalMoveMatches(board, replies, position.getName() + " after " + PackedMove.toAlgebraic(moves.get(i)));
+            board.unmakeMove();
+        }
+        assertEquals(position.getFen(), board.toFEN());
+    }
+
+    // The early exit must agree with full generation at every node down to three plies
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void hasAnyLegalMoveAgreesWithGeneration(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        int depth = Math.min(3, position.getMaxDepth());
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+
+        assertHasAnyLegalMove(board, depth, moveLists, position.getName());
+        assertEquals(position.getFen(), board.toFEN());
+    }
+
+    private static void assertHasAnyLegalMove(Board board, int depth, MoveList[] moveLists, String message) {
+        MoveList moves = moveLists[depth];
+        LegalMoveGenerator.generate(board, moves);
+        assertEquals(!moves.isEmpty(), LegalMoveGenerator.hasAnyLegalMove(board, board.getCurrentTurn()), message);
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertHasAnyLegalMove(board, depth - 1, moveLists, message);
+            board.unmakeMove();
+        }
+    }
+
+    private static void assertLegalMoveMatches(Board board, MoveList moves, String message) {
+        int accepted = 0;
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (PieceType promotion : PROMOTIONS) {
+                    int expected = promotion == PieceType.PAWN || promotion == PieceType.KING
+                            ? PackedMove.NONE
+                            : moves.find(from, to, promotion);
+                    int actual = LegalMoveGenerator.legalMove(board, from, to, promotion);
+                    assertEquals(expected, actual, message + " " + Position.of(from) + Position.of(to) + " " + promotion);
+                    if (actual != PackedMove.NONE) {
+                        accepted++;
+                    }
+                }
+            }
+        }
+        assertEquals(moves.size(), accepted, message);
+    }
+}
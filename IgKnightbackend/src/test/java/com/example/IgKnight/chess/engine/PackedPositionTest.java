@@ -0,0 +1,128 @@
+package com.example.IgKnight.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class PackedPositionTest {
+
+    private static final int PLIES = 80;
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Every position of a seeded random game from each reference position, so castling rights,
+    // en passant squares, promotions and both clocks all come up
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void roundTripsRandomGames(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode());
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply <= PLIES; ply++) {
+            assertRoundTrips(board);
+
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        "rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b Kq d3 0 2",
+        "8/8/8/4k3/8/8/8/4K3 w - - 255 65535",
+        "4k3/8/8/8/8/8/8/4K2R w K - 0 1",
+    })
+    void roundTripsStateFields(String fen) {
+        assertRoundTrips(Board.fromFEN(fen));
+    }
+
+    @Test
+    void encodesAtAnOffset() {
+        Board board = Board.fromFEN(PerftPosition.REFERENCE.get(1).getFen());
+        byte[] data = new byte[PackedPosition.BYTES + 7];
+        data[0] = 0x5A;
+
+        PackedPosition.encode(board, data, 5);
+        Board decoded = new Board();
+        PackedPosition.decode(data, 5, decoded);
+
+        assertEquals(0x5A, data[0]);
+        assertEquals(board.toFEN(), decoded.toFEN());
+    }
+
+    @Test
+    void decodingReplacesTheBoard() {
+        Board board = new Board();
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, moves);
+        board.makeMove(moves.get(0));
+        Board target = Board.fromFEN("8/8/8/4k3/8/8/8/4K3 w - - 0 1");
+
+        PackedPosition.decode(PackedPosition.encode(board), 0, target);
+
+        assertEquals(board.toFEN(), target.toFEN());
+        assertEquals(board.getZobristKey(), target.getZobristKey());
+    }
+
+    @Test
+    void rejectsCountersOutOfRange() {
+        Board halfMoves = Board.fromFEN("8/8/8/4k3/8/8/8/4K3 w - - 0 1");
+        halfMoves.loadState(Color.WHITE, 0, Board.NO_SQUARE, 256, 1);
+        Board fullMoves = Board.fromFEN("8/8/8/4k3/8/8/8/4K3 w - - 0 1");
+        fullMoves.loadState(Color.WHITE, 0, Board.NO_SQUARE, 0, 65536);
+
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.encode(halfMoves));
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.encode(fullMoves));
+    }
+
+    @Test
+    void rejectsMoreThanThirtyTwoPieces() {
+        Board board = new Board();
+        board.setPiece(Bitboards.square(4, 3), new Piece(PieceType.QUEEN, Color.WHITE));
+
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.encode(board));
+    }
+
+    @Test
+    void rejectsMalformedData() {
+        byte[] data = PackedPosition.encode(new Board());
+
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(new byte[PackedPosition.BYTES - 1]));
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(null));
+
+        byte[] badPiece = data.clone();
+        badPiece[8] = (byte) 0xC0;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(badPiece));
+
+        byte[] badEnPassant = data.clone();
+        badEnPassant[25] = 64;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(badEnPassant));
+
+        byte[] tooManyPieces = data.clone();
+        tooManyPieces[3] = (byte) 0x01;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.decode(tooManyPieces));
+    }
+
+    private static void assertRoundTrips(Board board) {
+        Board decoded = PackedPosition.decode(PackedPosition.encode(board));
+        String fen = board.toFEN();
+        assertEquals(fen, decoded.toFEN());
+        assertEquals(board.getZobristKey(), decoded.getZobristKey(), fen);
+        assertEquals(board.getPawnKey(), decoded.getPawnKey(), fen);
+    }
+}
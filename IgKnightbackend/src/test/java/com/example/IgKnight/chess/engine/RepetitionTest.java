@@ -0,0 +1,110 @@
+package com.example.IgKnight.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class RepetitionTest {
+
+    private static final int PLIES = 200;
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Seeded random games that mostly shuffle pieces back and forth, so positions do repeat, with
+    // the odd capture or pawn move resetting the halfmove clock. countRepetitions only looks back
+    // to the last reset; counting over the whole game must give the same answer.
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void matchesCountOverWholeGame(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode());
+        List<Long> keys = new ArrayList<>();
+        keys.add(board.getZobristKey());
+        MoveList moves = new MoveList();
+        int played = 0;
+        while (played < PLIES) {
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(pickMove(board, moves, random));
+            played++;
+            keys.add(board.getZobristKey());
+            assertEquals(occurrences(keys, keys.size()), board.countRepetitions(), position.getName() + " ply " + played);
+        }
+        while (played > 0) {
+            board.unmakeMove();
+            played--;
+            assertEquals(occurrences(keys, played + 1), board.countRepetitions(), position.getName() + " unmade to ply " + played);
+        }
+    }
+
+    @Test
+    void countsResetAfterPawnMove() {
+        Board board = new Board();
+        play(board, "g1f3 g8f6 f3g1 f6g8");
+        assertEquals(2, board.countRepetitions());
+        play(board, "g1f3 g8f6 f3g1 f6g8");
+        assertEquals(3, board.countRepetitions());
+
+        // Back to the position right after e4, which only counts from the pawn move on
+        play(board, "e2e4 g8f6 g1f3 f6g8 f3g1");
+        assertEquals(4, board.getHalfMoveClock());
+        assertEquals(2, board.countRepetitions());
+
+        for (int i = 0; i < 5; i++) {
+            board.unmakeMove();
+        }
+        assertEquals(3, board.countRepetitions());
+    }
+
+    // Occurrences of the position after the given number of entries among the positions before it
+    private static int occurrences(List<Long> keys, int size) {
+        long current = keys.get(size - 1);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys.get(i) == current) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Nine times out of ten a quiet piece move, when there is one
+    private static int pickMove(Board board, MoveList moves, Random random) {
+        if (random.nextInt(10) > 0) {
+            List<Integer> quiet = new ArrayList<>();
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!PackedMove.isCapture(move) && board.getPiece(PackedMove.from(move)).getType() != PieceType.PAWN) {
+                    quiet.add(move);
+                }
+            }
+            if (!quiet.isEmpty()) {
+                return quiet.get(random.nextInt(quiet.size()));
+            }
+        }
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    private static void play(Board board, String moves) {
+        MoveList legal = new MoveList();
+        for (String algebraic : moves.split(" ")) {
+            LegalMoveGenerator.generate(board, legal);
+            int move = legal.find(Position.fromAlgebraic(algebraic.substring(0, 2)).getIndex(),
+                    Position.fromAlgebraic(algebraic.substring(2, 4)).getIndex(), null);
+            board.makeMove(move);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.IgKnight.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class SanTest {
+
+    private static final String KIWIPETE = PerftPosition.REFERENCE.get(1).getFen();
+
+    // Knights on b1 and f1 both reach d2
+    private static final String KNIGHTS = "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1";
+    // Rooks on a1 and a5 both reach a3
+    private static final String ROOKS = "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1";
+    // Queens on a1, a3 and c1 all reach b2
+    private static final String QUEENS = "4k3/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1";
+    private static final String PROMOTION = "r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1";
+    private static final String BACK_RANK = "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1";
+
+    @Test
+    void disambiguatesByFile() {
+        assertRoundTrip(KNIGHTS, "b1d2", "Nbd2");
+        assertRoundTrip(KNIGHTS, "f1d2", "Nfd2");
+        assertRoundTrip(KNIGHTS, "b1c3", "Nc3");
+    }
+
+    @Test
+    void disambiguatesByRank() {
+        assertRoundTrip(ROOKS, "a1a3", "R1a3");
+        assertRoundTrip(ROOKS, "a5a3", "R5a3");
+    }
+
+    @Test
+    void disambiguatesByFullSquare() {
+        assertRoundTrip(QUEENS, "a1b2", "Qa1b2");
+        assertRoundTrip(QUEENS, "a3b2", "Q3b2");
+        assertRoundTrip(QUEENS, "c1b2", "Qcb2");
+    }
+
+    @Test
+    void parsesPromotionWithAndWithoutEquals() {
+        assertRoundTrip(PROMOTION, "b7b8q", "b8=Q+");
+        assertRoundTrip(PROMOTION, "b7a8n", "bxa8=N");
+        assertParses(PROMOTION, "b8Q", "b7b8q");
+        assertParses(PROMOTION, "b8=R", "b7b8r");
+        assertParses(PROMOTION, "b8R", "b7b8r");
+        assertParses(PROMOTION, "bxa8B", "b7a8b");
+        assertParses(PROMOTION, "bxa8=B", "b7a8b");
+    }
+
+    @Test
+    void parsesCastlingWithLettersAndZeros() {
+        assertRoundTrip(KIWIPETE, "e1g1", "O-O");
+        assertRoundTrip(KIWIPETE, "e1c1", "O-O-O");
+        assertParses(KIWIPETE, "0-0", "e1g1");
+        assertParses(KIWIPETE, "0-0-0", "e1c1");
+        assertTrue(PackedMove.isCastling(San.parse(Board.fromFEN(KIWIPETE), "0-0", LegalMoveMap.of(Board.fromFEN(KIWIPETE)))));
+    }
+
+    @Test
+    void formatsCheckAndMateSuffixes() {
+        assertRoundTrip(BACK_RANK, "a1a8", "Ra8#");
+        assertRoundTrip("4k3/8/8/8/8/8/8/R3K3 w - - 0 1", "a1a8", "Ra8+");
+        assertRoundTrip(BACK_RANK, "a1a7", "Ra7");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Ra8", "Ra8#", "Ra8+", "Ra8!", "Ra8#!?", "Rxa8", "Ra1a8", "Ra1-a8"})
+    void ignoresSuffixesAndCaptureMarks(String san) {
+        assertParses(BACK_RANK, san, "a1a8");
+    }
+
+    @Test
+    void rejectsAmbiguousMoves() {
+        IllegalArgumentException knights = assertThrows(IllegalArgumentException.class,
+                () -> San.parse(Board.fromFEN(KNIGHTS), "Nd2", LegalMoveMap.of(Board.fromFEN(KNIGHTS))));
+        IllegalArgumentException queens = assertThrows(IllegalArgumentException.class,
+                () -> San.parse(Board.fromFEN(QUEENS), "Qab2", LegalMoveMap.of(Board.fromFEN(QUEENS))));
+
+        assertTrue(knights.getMessage().startsWith("Ambiguous"), knights.getMessage());
+        assertTrue(queens.getMessage().startsWith("Ambiguous"), queens.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"e5", "Nf6", "Ke2", "O-O", "0-0-0", "exd3", "b8=Q", "Bb5"})
+    void rejectsIllegalMoves(String san) {
+        Board board = new Board();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> San.parse(board, san, LegalMoveMap.of(board)));
+
+        assertTrue(error.getMessage().startsWith("Illegal"), error.getMessage());
+    }
+
+    @Test
+    void rejectsPromotionWithoutPiece() {
+        Board board = Board.fromFEN(PROMOTION);
+
+        assertThrows(IllegalArgumentException.class, () -> San.parse(board, "b8", LegalMoveMap.of(board)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "+", "e", "e9", "i4", "Zf3", "Nf3x", "N?f3", "O-0", "0-O-O", "O-O-O-O", "OO"})
+    void rejectsMalformedInput(String san) {
+        Board board = new Board();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> San.parse(board, san, LegalMoveMap.of(board)));
+
+        assertTrue(error.getMessage().startsWith("Invalid"), error.getMessage());
+    }
+
+    @Test
+    void rejectsNull() {
+        Board board = new Board();
+
+        assertThrows(IllegalArgumentException.class, () -> San.parse(board, null, LegalMoveMap.of(board)));
+    }
+
+    @Test
+    void leavesBoardUnchanged() {
+        Board board = Board.fromFEN(KIWIPETE);
+        long key = board.getZobristKey();
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            String san = San.format(board, moves.get(i), moves);
+            assertEquals(moves.get(i), San.parse(board, san, moves), san);
+        }
+
+        assertEquals(KIWIPETE, board.toFEN());
+        assertEquals(key, board.getZobristKey());
+    }
+
+    // Formats the move given in coordinates and parses the expected SAN back to the same move
+    private static void assertRoundTrip(String fen, String algebraic, String san) {
+        Board board = Board.fromFEN(fen);
+        int move = find(board, algebraic);
+
+        assertEquals(san, San.format(board, move));
+        assertEquals(move, San.parse(board, san, LegalMoveMap.of(board)), san);
+    }
+
+    private static void assertParses(String fen, String san, String algebraic) {
+        Board board = Board.fromFEN(fen);
+
+        assertEquals(algebraic, PackedMove.toAlgebraic(San.parse(board, san, LegalMoveMap.of(board))), san);
+    }
+
+    private static int find(Board board, String algebraic) {
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toAlgebraic(moves.get(i)).equals(algebraic)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + algebraic);
+    }
+}
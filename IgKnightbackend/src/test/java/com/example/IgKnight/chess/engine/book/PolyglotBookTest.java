@@ -0,0 +1,106 @@
+package com.example.IgKnight.chess.engine.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PieceType;
+import com.example.IgKnight.chess.engine.Position;
+
+class PolyglotBookTest {
+
+    private static final String CASTLING = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String PROMOTION = "4k3/1P6/8/8/8/8/K7/8 w - - 0 1";
+
+    @Test
+    void encodesCastlingAsKingTakesRook() {
+        Board board = Board.fromFEN(CASTLING);
+
+        assertEquals(square("h1") | square("e1") << 6, PolyglotBook.encodeMove(move(board, "e1", "g1", null)));
+        assertEquals(square("a1") | square("e1") << 6, PolyglotBook.encodeMove(move(board, "e1", "c1", null)));
+    }
+
+    @Test
+    void encodesPromotionPieces() {
+        Board board = Board.fromFEN(PROMOTION);
+        int to = square("b8");
+        int from = square("b7");
+
+        assertEquals(to | from << 6 | 1 << 12, PolyglotBook.encodeMove(move(board, "b7", "b8", PieceType.KNIGHT)));
+        assertEquals(to | from << 6 | 2 << 12, PolyglotBook.encodeMove(move(board, "b7", "b8", PieceType.BISHOP)));
+        assertEquals(to | from << 6 | 3 << 12, PolyglotBook.encodeMove(move(board, "b7", "b8", PieceType.ROOK)));
+        assertEquals(to | from << 6 | 4 << 12, PolyglotBook.encodeMove(move(board, "b7", "b8", PieceType.QUEEN)));
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Board start = new Board();
+        Board castling = Board.fromFEN(CASTLING);
+        Board promotion = Board.fromFEN(PROMOTION);
+        int e4 = move(start, "e2", "e4", null);
+        int d4 = move(start, "d2", "d4", null);
+        int shortCastle = move(castling, "e1", "g1", null);
+        int longCastle = move(castling, "e1", "c1", null);
+        int queen = move(promotion, "b7", "b8", PieceType.QUEEN);
+        int knight = move(promotion, "b7", "b8", PieceType.KNIGHT);
+
+        PolyglotBookWriter writer = new PolyglotBookWriter();
+        writer.add(start, e4, 3);
+        writer.add(start, d4, 1);
+        writer.add(start, e4, 2);
+        writer.add(castling, longCastle, 1);
+        writer.add(castling, shortCastle, 4);
+        writer.add(promotion, knight, 1);
+        writer.add(promotion, queen, 9);
+
+        Path directory = Files.createTempDirectory("book");
+        Path file = directory.resolve("test.bin");
+        try {
+            writer.write(file);
+            PolyglotBook book = PolyglotBook.open(file);
+
+            assertEquals(3, writer.positionCount());
+            assertEquals(6, book.size());
+            assertMoves(book.lookup(start), e4, 5, d4, 1);
+            assertMoves(book.lookup(castling), shortCastle, 4, longCastle, 1);
+            assertMoves(book.lookup(promotion), queen, 9, knight, 1);
+            assertEquals(shortCastle, book.bestMove(castling));
+            assertEquals(queen, book.bestMove(promotion));
+            assertTrue(book.lookup(Board.fromFEN("4k3/8/8/8/8/8/8/4K3 w - - 0 1")).isEmpty());
+            assertEquals(PackedMove.NONE, book.pickMove(Board.fromFEN("4k3/8/8/8/8/8/8/4K3 w - - 0 1")));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void assertMoves(List<BookMove> moves, int first, int firstWeight, int second, int secondWeight) {
+        assertEquals(2, moves.size());
+        assertEquals(first, moves.get(0).getMove());
+        assertEquals(firstWeight, moves.get(0).getWeight());
+        assertEquals(second, moves.get(1).getMove());
+        assertEquals(secondWeight, moves.get(1).getWeight());
+    }
+
+    private static int move(Board board, String from, String to, PieceType promotion) {
+        MoveList legal = new MoveList();
+        LegalMoveGenerator.generate(board, legal);
+        int move = legal.find(square(from), square(to), promotion);
+        assertTrue(move != PackedMove.NONE, from + to + " is not legal");
+        return move;
+    }
+
+    private static int square(String name) {
+        return Position.fromAlgebraic(name).getIndex();
+    }
+}
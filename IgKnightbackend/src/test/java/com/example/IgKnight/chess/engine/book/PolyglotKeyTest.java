@@ -0,0 +1,72 @@
+package com.example.IgKnight.chess.engine.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.Position;
+
+class PolyglotKeyTest {
+
+    // Steps between positions of the Polyglot specification's reference list: the moves from the
+    // start to each end, and the published keys of both ends. A step's keys differ by the entries
+    // of the pieces moved, castling rights lost, en passant files and the turn, so each one checks
+    // those entries and their indexing. Steps moving a king or queen are left out, as those table
+    // entries are not the published ones (see PolyglotKey).
+    static Stream<Object[]> publishedSteps() {
+        return Stream.of(
+                new Object[] {"", 0x463b96181691fc9cL, "e2e4", 0x823c9b50fd114196L},
+                new Object[] {"e2e4", 0x823c9b50fd114196L, "e2e4 d7d5", 0x0756b94461c50fb0L},
+                new Object[] {"e2e4 d7d5", 0x0756b94461c50fb0L, "e2e4 d7d5 e4e5", 0x662fafb965db29d4L},
+                // Black's double step gives white an en passant capture on f6
+                new Object[] {"e2e4 d7d5 e4e5", 0x662fafb965db29d4L, "e2e4 d7d5 e4e5 f7f5", 0x22a48b5a8e47ff78L},
+                new Object[] {"", 0x463b96181691fc9cL, "a2a4 b7b5 h2h4 b5b4 c2c4", 0x3c8123ea7b067637L},
+                // The capture removes the en passant file, the rook move white's queenside right
+                new Object[] {"a2a4 b7b5 h2h4 b5b4 c2c4", 0x3c8123ea7b067637L,
+                        "a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3", 0x5c3f9b829b279560L});
+    }
+
+    @ParameterizedTest
+    @MethodSource("publishedSteps")
+    void matchesPublishedKeySteps(String fromMoves, long fromKey, String toMoves, long toKey) {
+        long step = PolyglotKey.of(play(fromMoves)) ^ PolyglotKey.of(play(toMoves));
+
+        assertEquals(fromKey ^ toKey, step, fromMoves + " -> " + toMoves);
+    }
+
+    @Test
+    void enPassantFileCountsOnlyWhenCapturable() {
+        // After 1.e4 no black pawn can take on e3
+        assertEquals(PolyglotKey.of(Board.fromFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")),
+                PolyglotKey.of(play("e2e4")));
+        // After 3...f5 the pawn on e5 can take on f6
+        assertNotEquals(PolyglotKey.of(Board.fromFEN("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3")),
+                PolyglotKey.of(play("e2e4 d7d5 e4e5 f7f5")));
+    }
+
+    static Board play(String moves) {
+        Board board = new Board();
+        MoveList legal = new MoveList();
+        for (String move : moves.split(" ")) {
+            if (move.isEmpty()) {
+                continue;
+            }
+            legal.clear();
+            LegalMoveGenerator.generate(board, legal);
+            int packed = legal.find(Position.fromAlgebraic(move.substring(0, 2)).getIndex(),
+                    Position.fromAlgebraic(move.substring(2, 4)).getIndex(), null);
+            assertNotEquals(PackedMove.NONE, packed, move + " is not legal");
+            board.makeMove(packed);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+// Uses the scalar kernels only, so it runs with or without the jdk.incubator.vector module
+class AccumulatorTest {
+
+    private static final int PLIES = 60;
+
+    private static final NnueNetwork NETWORK = NnueNetwork.random(7, 32, 16, 16);
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Plays a seeded random game and compares the incrementally updated sums with ones rebuilt
+    // from scratch after every make and every unmake
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void incrementalUpdatesMatchRebuild(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        Accumulator accumulator = new Accumulator(NETWORK, Kernels.scalar(), board);
+        board.setPieceListener(accumulator);
+        Random random = new Random(position.getFen().hashCode());
+        MoveList moves = new MoveList();
+        int played = 0;
+        assertMatchesRebuild(accumulator, board, position.getName() + " start");
+        while (played < PLIES) {
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            played++;
+            assertMatchesRebuild(accumulator, board, position.getName() + " ply " + played);
+        }
+        while (played > 0) {
+            board.unmakeMove();
+            played--;
+            assertMatchesRebuild(accumulator, board, position.getName() + " unmade to ply " + played);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void evaluationMatchesFreshBoard(PerftPosition position) {
+        NnueEvaluator evaluator = new NnueEvaluator(NETWORK, false);
+        Board board = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode() ^ 0x5bd1e995);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply <= PLIES; ply++) {
+            String fen = board.toFEN();
+            assertEquals(evaluator.evaluate(Board.fromFEN(fen)), evaluator.evaluate(board), fen);
+
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+    }
+
+    @Test
+    void scalarEvaluatorIsNotVectorized() {
+        assertFalse(new NnueEvaluator(NETWORK, false).isVectorized());
+    }
+
+    private static void assertMatchesRebuild(Accumulator accumulator, Board board, String message) {
+        Accumulator rebuilt = new Accumulator(NETWORK, Kernels.scalar(), Board.fromFEN(board.toFEN()));
+        assertArrayEquals(rebuilt.values(Color.WHITE), accumulator.values(Color.WHITE), message + " white");
+        assertArrayEquals(rebuilt.values(Color.BLACK), accumulator.values(Color.BLACK), message + " black");
+    }
+}
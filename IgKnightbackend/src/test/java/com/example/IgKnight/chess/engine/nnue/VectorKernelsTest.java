@@ -0,0 +1,97 @@
+package com.example.IgKnight.chess.engine.nnue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+// Needs the jdk.incubator.vector module, which the Maven test run adds; elsewhere these are skipped
+class VectorKernelsTest {
+
+    private static final int PLIES = 60;
+
+    private static final NnueNetwork NETWORK = NnueNetwork.random(11, 48, 16, 16);
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Lengths that are not a multiple of any vector width exercise the scalar tails too
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 16, 33, 64, 255})
+    void kernelsMatchScalar(int length) {
+        Kernels vector = vectorKernels();
+        Kernels scalar = Kernels.scalar();
+        Random random = new Random(length);
+        short[] weights = new short[length + 5];
+        int[] intWeights = new int[length + 5];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (short) (random.nextInt(65) - 32);
+            intWeights[i] = random.nextInt(65) - 32;
+        }
+        short[] expected = new short[length];
+        for (int i = 0; i < length; i++) {
+            expected[i] = (short) (random.nextInt(401) - 200);
+        }
+        short[] actual = expected.clone();
+
+        scalar.add(expected, weights, 3, length);
+        vector.add(actual, weights, 3, length);
+        assertArrayEquals(expected, actual, "add");
+        scalar.subtract(expected, weights, 5, length);
+        vector.subtract(actual, weights, 5, length);
+        assertArrayEquals(expected, actual, "subtract");
+
+        int[] expectedRelu = new int[length + 2];
+        int[] actualRelu = new int[length + 2];
+        scalar.clippedRelu(expected, expectedRelu, 2, length, NnueNetwork.ACTIVATION_MAX);
+        vector.clippedRelu(actual, actualRelu, 2, length, NnueNetwork.ACTIVATION_MAX);
+        assertArrayEquals(expectedRelu, actualRelu, "clippedRelu");
+
+        int[] input = new int[length];
+        for (int i = 0; i < length; i++) {
+            input[i] = random.nextInt(NnueNetwork.ACTIVATION_MAX + 1);
+        }
+        assertEquals(scalar.dot(input, intWeights, 4, length), vector.dot(input, intWeights, 4, length), "dot");
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void evaluationMatchesScalar(PerftPosition position) {
+        NnueEvaluator vector = new NnueEvaluator(NETWORK, true);
+        assumeTrue(vector.isVectorized(), "jdk.incubator.vector is not available");
+        NnueEvaluator scalar = new NnueEvaluator(NETWORK, false);
+        Board vectorBoard = Board.fromFEN(position.getFen());
+        Board scalarBoard = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode());
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply <= PLIES; ply++) {
+            assertEquals(scalar.evaluate(scalarBoard), vector.evaluate(vectorBoard), vectorBoard.toFEN());
+
+            LegalMoveGenerator.generate(vectorBoard, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            vectorBoard.makeMove(move);
+            scalarBoard.makeMove(move);
+        }
+    }
+
+    private static Kernels vectorKernels() {
+        Kernels kernels = Kernels.best();
+        assumeTrue(kernels.isVectorized(), "jdk.incubator.vector is not available");
+        return kernels;
+    }
+}
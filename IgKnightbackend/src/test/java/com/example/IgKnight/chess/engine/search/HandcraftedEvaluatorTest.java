@@ -0,0 +1,140 @@
+package com.example.IgKnight.chess.engine.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.engine.Bitboards;
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.Color;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.Piece;
+import com.example.IgKnight.chess.engine.PieceSquareTables;
+import com.example.IgKnight.chess.engine.PieceType;
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class HandcraftedEvaluatorTest {
+
+    private static final int PLIES = 60;
+
+    private final HandcraftedEvaluator evaluator = new HandcraftedEvaluator();
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    // Plays a seeded random game from each position and checks Board's running totals against a
+    // recount from the squares after every make and every unmake
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void incrementalTotalsMatchRecomputation(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode());
+        MoveList moves = new MoveList();
+        int played = 0;
+        assertTotals(board, position.getName() + " start");
+        while (played < PLIES) {
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            played++;
+            assertTotals(board, position.getName() + " ply " + played);
+        }
+        while (played > 0) {
+            board.unmakeMove();
+            played--;
+            assertTotals(board, position.getName() + " unmade to ply " + played);
+        }
+        assertEquals(position.getFen(), board.toFEN());
+    }
+
+    // The mirrored position, colours swapped and ranks flipped, must score the same for the side to move
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void evaluationIsColourSymmetric(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        Random random = new Random(position.getFen().hashCode() ^ 0x5bd1e995);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply <= PLIES; ply++) {
+            String fen = board.toFEN();
+            assertEquals(evaluator.evaluate(board), evaluator.evaluate(Board.fromFEN(mirror(fen))), fen);
+
+            LegalMoveGenerator.generate(board, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+    }
+
+    private static void assertTotals(Board board, String message) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        int[] material = new int[2];
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece == null) {
+                continue;
+            }
+            int index = Bitboards.pieceIndex(piece.getType(), piece.getColor());
+            middlegame += PieceSquareTables.middlegame(index, square);
+            endgame += PieceSquareTables.endgame(index, square);
+            phase += PieceSquareTables.phase(index);
+            if (piece.getType() != PieceType.KING) {
+                material[piece.getColor().ordinal()] += piece.getType().getValue();
+            }
+        }
+        assertEquals(middlegame, board.getMiddlegameScore(), message + " middlegame");
+        assertEquals(endgame, board.getEndgameScore(), message + " endgame");
+        assertEquals(phase, board.getPhase(), message + " phase");
+        assertEquals(material[Color.WHITE.ordinal()], board.getMaterial(Color.WHITE), message + " white material");
+        assertEquals(material[Color.BLACK.ordinal()], board.getMaterial(Color.BLACK), message + " black material");
+        assertEquals(Board.fromFEN(board.toFEN()).getPawnKey(), board.getPawnKey(), message + " pawn key");
+    }
+
+    // Flips the ranks and swaps the colours of everything in a FEN
+    static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        StringBuilder placement = new StringBuilder();
+        for (int i = ranks.length - 1; i >= 0; i--) {
+            placement.append(swapCase(ranks[i]));
+            if (i > 0) {
+                placement.append('/');
+            }
+        }
+
+        String castling = "-";
+        if (!fields[2].equals("-")) {
+            StringBuilder rights = new StringBuilder();
+            String swapped = swapCase(fields[2]);
+            for (char right : "KQkq".toCharArray()) {
+                if (swapped.indexOf(right) >= 0) {
+                    rights.append(right);
+                }
+            }
+            castling = rights.toString();
+        }
+
+        String enPassant = fields[3].equals("-") ? "-"
+                : fields[3].charAt(0) + String.valueOf((char) ('1' + '8' - fields[3].charAt(1)));
+        return placement + " " + (fields[1].equals("w") ? "b" : "w") + " " + castling + " " + enPassant
+                + " " + fields[4] + " " + fields[5];
+    }
+
+    private static String swapCase(String text) {
+        StringBuilder swapped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.IgKnight.chess.engine.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.PackedMove;
+
+class LazySmpSearchTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4};
+    private static final SearchLimits LIMITS = SearchLimits.depth(6);
+
+    // Mates where every attacking move is the only one that mates in time and every defence is
+    // forced, so the principal variation cannot depend on which thread finished first
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1;a1a8",
+        "k7/p1K5/8/8/8/8/8/1R6 w - - 0 1;b1b8",
+        "5r1k/6pp/7N/8/2Q5/8/8/6K1 w - - 0 1;c4g8 f8g8 h6f7",
+    })
+    void samePrincipalVariationAtEveryThreadCount(String position) {
+        String[] parts = position.split(";");
+        List<String> expected = Arrays.asList(parts[1].split(" "));
+        try (LazySmpSearch search = new LazySmpSearch(new HandcraftedEvaluator(), 8, 4)) {
+            for (int threads : THREAD_COUNTS) {
+                Board board = Board.fromFEN(parts[0]);
+                SearchResult result = search.search(board, LIMITS, threads);
+
+                assertEquals(expected, result.getPrincipalVariationAlgebraic(), threads + " threads");
+                assertEquals(Search.MATE - expected.size(), result.getScore(), threads + " threads");
+                assertEquals(parts[0], board.toFEN(), threads + " threads");
+            }
+        }
+    }
+
+    // Only one first move mates this fast, though the defence has choices further down
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1;a1a6;3",
+        "r5rk/5p1p/5R2/4B3/8/8/7P/7K w - - 0 1;f6a6;5",
+    })
+    void sameMateAtEveryThreadCount(String position) {
+        String[] parts = position.split(";");
+        try (LazySmpSearch search = new LazySmpSearch(new HandcraftedEvaluator(), 8, 4)) {
+            for (int threads : THREAD_COUNTS) {
+                Board board = Board.fromFEN(parts[0]);
+                SearchResult result = search.search(board, LIMITS, threads);
+
+                assertEquals(parts[1], PackedMove.toAlgebraic(result.getBestMove()), threads + " threads");
+                assertEquals(Search.MATE - Integer.parseInt(parts[2]), result.getScore(), threads + " threads");
+                assertEquals(parts[0], board.toFEN(), threads + " threads");
+            }
+        }
+    }
+}
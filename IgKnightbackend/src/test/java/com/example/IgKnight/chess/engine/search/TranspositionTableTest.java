@@ -0,0 +1,113 @@
+package com.example.IgKnight.chess.engine.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PieceType;
+
+class TranspositionTableTest {
+
+    private static final int[] MOVES = {
+        PackedMove.encode(12, 28),
+        PackedMove.encode(52, 61, PieceType.QUEEN, true, false, false),
+        PackedMove.encode(4, 6, null, false, true, false),
+        PackedMove.encode(35, 44, null, true, false, true),
+    };
+    private static final int[] SCORES = {
+        -Search.INFINITY, -Search.MATE, -Search.MATE + 5, -1, 0, 1, 250, Search.MATE - 5, Search.MATE, Search.INFINITY,
+    };
+
+    @Test
+    void packedFieldsRoundTrip() {
+        for (int move : MOVES) {
+            for (int score : SCORES) {
+                for (int depth : new int[] {0, 1, 64, 255}) {
+                    for (int bound : new int[] {TranspositionTable.EXACT, TranspositionTable.LOWER_BOUND, TranspositionTable.UPPER_BOUND}) {
+                        for (int generation : new int[] {0, 1, 255}) {
+                            long entry = TranspositionTable.pack(move, score, depth, bound, generation);
+                            String message = move + "/" + score + "/" + depth + "/" + bound + "/" + generation;
+                            assertEquals(move, TranspositionTable.move(entry), message);
+                            assertEquals(score, TranspositionTable.score(entry), message);
+                            assertEquals(depth, TranspositionTable.depth(entry), message);
+                            assertEquals(bound, TranspositionTable.bound(entry), message);
+                            assertEquals(generation, TranspositionTable.generation(entry), message);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void depthIsClampedToItsField() {
+        assertEquals(0, TranspositionTable.depth(TranspositionTable.pack(0, 0, -3, TranspositionTable.EXACT, 0)));
+        assertEquals(255, TranspositionTable.depth(TranspositionTable.pack(0, 0, 300, TranspositionTable.EXACT, 0)));
+    }
+
+    @Test
+    void probeReturnsOnlyTheStoredPosition() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x9D39247E33776D41L;
+        long sameSlot = key + table.capacity();
+        table.store(key, MOVES[1], 120, 7, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(key);
+        assertEquals(MOVES[1], TranspositionTable.move(entry));
+        assertEquals(120, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(sameSlot));
+    }
+
+    @Test
+    void failLowKeepsTheStoredMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1A2B3C4D5E6F7081L;
+        table.store(key, MOVES[0], 40, 5, TranspositionTable.EXACT);
+        table.store(key, PackedMove.NONE, -10, 6, TranspositionTable.UPPER_BOUND);
+
+        long entry = table.probe(key);
+        assertEquals(MOVES[0], TranspositionTable.move(entry));
+        assertEquals(-10, TranspositionTable.score(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    void deeperEntryOfThisSearchIsKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x0123456789ABCDEFL;
+        long sameSlot = key + table.capacity();
+        table.store(key, MOVES[0], 15, 9, TranspositionTable.EXACT);
+        table.store(sameSlot, MOVES[1], 30, 2, TranspositionTable.EXACT);
+        assertEquals(9, TranspositionTable.depth(table.probe(key)));
+
+        // Once a new search starts the old entry may be replaced
+        table.newSearch();
+        table.store(sameSlot, MOVES[1], 30, 2, TranspositionTable.EXACT);
+        assertEquals(0L, table.probe(key));
+        assertEquals(2, TranspositionTable.depth(table.probe(sameSlot)));
+    }
+
+    // A mate found 7 plies from the root at a node 3 plies deep is a mate in 4 from that node, and
+    // is a mate 9 plies from the root when the same node is reached again at ply 5
+    @Test
+    void mateScoresAreStoredRelativeToTheNode() {
+        assertEquals(Search.MATE - 4, Search.scoreToTable(Search.MATE - 7, 3));
+        assertEquals(Search.MATE - 9, Search.scoreFromTable(Search.MATE - 4, 5));
+        assertEquals(-Search.MATE + 4, Search.scoreToTable(-Search.MATE + 7, 3));
+        assertEquals(-Search.MATE + 9, Search.scoreFromTable(-Search.MATE + 4, 5));
+
+        for (int ply = 0; ply < Search.MAX_PLY / 2; ply++) {
+            for (int score : SCORES) {
+                if (Math.abs(score) > Search.MATE) {
+                    continue;
+                }
+                assertEquals(score, Search.scoreFromTable(Search.scoreToTable(score, ply), ply), score + " at ply " + ply);
+            }
+        }
+        assertEquals(250, Search.scoreToTable(250, 12));
+        assertEquals(-250, Search.scoreFromTable(-250, 12));
+    }
+}
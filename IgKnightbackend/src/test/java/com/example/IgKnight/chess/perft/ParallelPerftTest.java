@@ -0,0 +1,58 @@
+package com.example.IgKnight.chess.perft;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.engine.Board;
+
+class ParallelPerftTest {
+
+    // Deep enough that the parallel search splits below the root, small enough to keep the suite fast
+    private static final long MAX_NODES = 500_000;
+
+    private final Perft perft = new Perft();
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void perftMatchesSequential(PerftPosition position) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelPerft parallelPerft = new ParallelPerft(pool);
+            Board board = Board.fromFEN(position.getFen());
+            for (int depth = 1; depth <= position.getMaxDepth(); depth++) {
+                if (position.getExpectedNodes(depth) > MAX_NODES) {
+                    break;
+                }
+                assertEquals(perft.perft(board, depth), parallelPerft.perft(board, depth),
+                        position.getName() + " depth " + depth);
+            }
+            assertEquals(position.getFen(), board.toFEN());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void divideMatchesSequential(PerftPosition position) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelPerft parallelPerft = new ParallelPerft(pool);
+            Board board = Board.fromFEN(position.getFen());
+            int depth = Math.min(3, position.getMaxDepth());
+
+            assertEquals(perft.divide(board, depth), parallelPerft.divide(board, depth), position.getName());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.IgKnight.chess.perft;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.IgKnight.chess.engine.Board;
+
+class PerftTest {
+
+    // Keeps the suite fast; the full reference depths run through Perft.main
+    private static final long MAX_NODES = 500_000;
+
+    private final Perft perft = new Perft();
+
+    static Stream<PerftPosition> referencePositions() {
+        return PerftPosition.REFERENCE.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void matchesReferenceNodeCounts(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        for (int depth = 1; depth <= position.getMaxDepth(); depth++) {
+            long expected = position.getExpectedNodes(depth);
+            if (expected > MAX_NODES) {
+                break;
+            }
+            assertEquals(expected, perft.perft(board, depth), position.getName() + " depth " + depth);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referencePositions")
+    void leavesBoardUnchanged(PerftPosition position) {
+        Board board = Board.fromFEN(position.getFen());
+        long key = board.getZobristKey();
+
+        perft.perft(board, Math.min(3, position.getMaxDepth()));
+
+        assertEquals(position.getFen(), board.toFEN());
+        assertEquals(key, board.getZobristKey());
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        Board board = Board.fromFEN(PerftPosition.REFERENCE.get(1).getFen());
+
+        Map<String, Long> divide = perft.divide(board, 3);
+
+        assertEquals(48, divide.size());
+        assertEquals(97862L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(divide.containsKey("e1g1"));
+        assertTrue(divide.containsKey("e1c1"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.IgKnight.chess.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.GameStatus;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PositionAnalysis;
+import com.example.IgKnight.chess.perft.PerftPosition;
+
+class BatchAnalysisServiceTest {
+
+    // Positions where the game is already over, so every status shows up in the batch
+    private static final String[] FINISHED = {
+        "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+        "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1",
+        "8/8/8/4k3/8/8/2B5/4K3 w - - 0 1",
+        "8/8/8/4k3/8/8/8/R3K3 w - - 100 80",
+    };
+
+    private final MoveValidator moveValidator = new MoveValidator(new MoveGenerator());
+    private final GameStateService gameStateService = new GameStateService(moveValidator);
+
+    @Test
+    void matchesSequentialAnalysis() {
+        List<Board> boards = positions();
+        BatchAnalysisService service = new BatchAnalysisService(gameStateService, moveValidator, 4);
+        try {
+            List<PositionAnalysis> batch = service.analyzeAll(boards);
+
+            assertEquals(boards.size(), batch.size());
+            for (int i = 0; i < boards.size(); i++) {
+                PositionAnalysis expected = gameStateService.analyze(boards.get(i));
+                PositionAnalysis actual = batch.get(i);
+                String position = boards.get(i).toFEN();
+                assertEquals(expected.getStatus(), actual.getStatus(), position);
+                assertEquals(expected.getSideToMove(), actual.getSideToMove(), position);
+                assertEquals(expected.isInCheck(), actual.isInCheck(), position);
+                assertEquals(expected.hasLegalMoves(), actual.hasLegalMoves(), position);
+                assertEquals(expected.isDrawByFiftyMoveRule(), actual.isDrawByFiftyMoveRule(), position);
+                assertEquals(expected.isDrawByThreefoldRepetition(), actual.isDrawByThreefoldRepetition(), position);
+                assertEquals(expected.isDrawByInsufficientMaterial(), actual.isDrawByInsufficientMaterial(), position);
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void reportsEveryFinishedStatus() {
+        List<Board> boards = new ArrayList<>();
+        for (String fen : FINISHED) {
+            boards.add(Board.fromFEN(fen));
+        }
+        boards.add(repeatedStartPosition());
+        BatchAnalysisService service = new BatchAnalysisService(gameStateService, moveValidator, 2);
+        try {
+            List<PositionAnalysis> batch = service.analyzeAll(boards);
+
+            assertEquals(GameStatus.CHECKMATE, batch.get(0).getStatus());
+            assertEquals(GameStatus.STALEMATE, batch.get(1).getStatus());
+            assertEquals(GameStatus.DRAW_INSUFFICIENT_MATERIAL, batch.get(2).getStatus());
+            assertEquals(GameStatus.DRAW_FIFTY_MOVE, batch.get(3).getStatus());
+            assertEquals(GameStatus.DRAW_REPETITION, batch.get(4).getStatus());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    // Every reference position and each position one move after it: several hundred boards, enough
+    // for the batch to be split across workers
+    private List<Board> positions() {
+        List<Board> boards = new ArrayList<>();
+        for (PerftPosition position : PerftPosition.REFERENCE) {
+            Board board = Board.fromFEN(position.getFen());
+            boards.add(board);
+            MoveList moves = new MoveList();
+            moveValidator.generateLegalMoves(board, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                Board child = board.copy();
+                child.makeMove(moves.get(i));
+                boards.add(child);
+            }
+        }
+        for (String fen : FINISHED) {
+            boards.add(Board.fromFEN(fen));
+        }
+        boards.add(repeatedStartPosition());
+        return boards;
+    }
+
+    // The start position after the knights have gone out and back twice
+    private Board repeatedStartPosition() {
+        Board board = new Board();
+        for (int i = 0; i < 2; i++) {
+            for (String move : new String[] {"g1f3", "g8f6", "f3g1", "f6g8"}) {
+                board.makeMove(find(board, move));
+            }
+        }
+        return board;
+    }
+
+    private int find(Board board, String algebraic) {
+        MoveList moves = new MoveList();
+        moveValidator.generateLegalMoves(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toAlgebraic(moves.get(i)).equals(algebraic)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException(algebraic);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.IgKnight.chess.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.IgKnight.chess.engine.Board;
+import com.example.IgKnight.chess.engine.LegalMoveGenerator;
+import com.example.IgKnight.chess.engine.MoveList;
+import com.example.IgKnight.chess.engine.PackedMove;
+import com.example.IgKnight.chess.engine.PackedPosition;
+import com.example.IgKnight.chess.entity.Game;
+import com.example.IgKnight.chess.entity.GameMove;
+
+class GameServiceHistoryTest {
+
+    // Knight shuffles to a threefold repetition, a pawn move and a capture resetting the halfmove
+    // clock, then shuffles to a second repetition
+    private static final String MOVES = "g1f3 g8f6 f3g1 f6g8 g1f3 g8f6 f3g1 f6g8 "
+            + "e2e4 d7d5 e4d5 d8d5 b1c3 d5d8 c3b1 d8d5 b1c3 d5d8 c3b1 d8d5 g1f3 d5d8 f3g1";
+
+    // A board rebuilt from the stored game after every move must count repetitions exactly like
+    // the board the moves were played on, whichever form the move rows stored their positions in
+    @ParameterizedTest
+    @ValueSource(strings = {"key", "fen", "packed"})
+    void rebuiltBoardCountsRepetitionsLikeLiveBoard(String storage) {
+        Board live = new Board();
+        Game game = new Game();
+        game.setMoves(new ArrayList<>());
+        MoveList legal = new MoveList();
+        int maxRepetitions = 0;
+        for (String algebraic : MOVES.split(" ")) {
+            LegalMoveGenerator.generate(live, legal);
+            live.makeMove(find(legal, algebraic));
+
+            GameMove row = new GameMove();
+            switch (storage) {
+                case "key" -> {
+                    row.setFenAfterMove(live.toFEN());
+                    row.setPositionKey(live.getZobristKey());
+                }
+                case "fen" -> row.setFenAfterMove(live.toFEN());
+                default -> row.setPositionAfterMove(PackedPosition.encode(live));
+            }
+            game.getMoves().add(row);
+            game.setFenPosition(live.toFEN());
+
+            Board rebuilt = GameService.loadBoardWithHistory(game);
+            assertEquals(live.countRepetitions(), rebuilt.countRepetitions(), storage + " after " + algebraic);
+            maxRepetitions = Math.max(maxRepetitions, rebuilt.countRepetitions());
+        }
+        assertEquals(3, maxRepetitions);
+    }
+
+    private static int find(MoveList legal, String algebraic) {
+        for (int i = 0; i < legal.size(); i++) {
+            if (PackedMove.toAlgebraic(legal.get(i)).equals(algebraic)) {
+                return legal.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + algebraic);
+    }
+}